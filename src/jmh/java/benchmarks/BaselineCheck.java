@@ -0,0 +1,96 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result against the committed baseline and exits non-zero when a
+ * benchmark got slower, or allocates more per operation, by more than the threshold.
+ *
+ * <pre>
+ * java benchmarks.BaselineCheck baseline.json result.json 0.10
+ * </pre>
+ */
+public class BaselineCheck {
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+    // Allocation changes below one object header are noise from escape analysis
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Path.of(args[0]);
+        Path resultFile = Path.of(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + "; copy " + resultFile + " there to create one.");
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = byBenchmark(mapper.readTree(baselineFile.toFile()));
+        Map<String, JsonNode> result = byBenchmark(mapper.readTree(resultFile.toFile()));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.printf("%-75s %14s %14s %12s %12s%n", "benchmark", "baseline", "current", "B/op base", "B/op now");
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double score = after.path("primaryMetric").path("score").asDouble();
+            double alloc = allocation(after);
+            if (before == null) {
+                System.out.printf("%-75s %14s %14.3f %12s %12.1f%n", entry.getKey(), "new", score, "-", alloc);
+                continue;
+            }
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            double baseAlloc = allocation(before);
+            System.out.printf("%-75s %14.3f %14.3f %12.1f %12.1f%n", entry.getKey(), baseScore, score, baseAlloc, alloc);
+
+            if (isRegression(after.path("mode").asText(), baseScore, score, threshold)) {
+                regressions.add(String.format("%s: %.3f -> %.3f %s", entry.getKey(), baseScore, score,
+                        after.path("primaryMetric").path("scoreUnit").asText()));
+            }
+            if (alloc - baseAlloc > Math.max(ALLOC_SLACK_BYTES, baseAlloc * threshold)) {
+                regressions.add(String.format("%s: %.1f -> %.1f B/op", entry.getKey(), baseAlloc, alloc));
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.println();
+            System.out.println("Regressions over " + Math.round(threshold * 100) + "%:");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    // Throughput: higher is better; every other mode reports time per operation
+    private static boolean isRegression(String mode, double baseline, double current, double threshold) {
+        if (mode.equals("thrpt")) {
+            return current < baseline * (1 - threshold);
+        }
+        return current > baseline * (1 + threshold);
+    }
+
+    private static double allocation(JsonNode benchmark) {
+        JsonNode secondary = benchmark.path("secondaryMetrics");
+        // Older JMH versions prefix profiler metrics with a middle dot
+        JsonNode metric = secondary.has(ALLOC_NORM) ? secondary.get(ALLOC_NORM) : secondary.path("\u00b7" + ALLOC_NORM);
+        return metric.path("score").asDouble();
+    }
+
+    private static Map<String, JsonNode> byBenchmark(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode benchmark : results) {
+            String name = benchmark.path("benchmark").asText();
+            JsonNode params = benchmark.path("params");
+            byName.put(params.isMissingNode() ? name : name + params, benchmark);
+        }
+        return byName;
+    }
+}
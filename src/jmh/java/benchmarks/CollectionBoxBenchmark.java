@@ -0,0 +1,56 @@
+package benchmarks;
+
+import app.exceptions.arguments.ArgumentsException;
+import app.factories.CollectionBoxFactory;
+import app.models.CollectionBox;
+import app.models.Currencies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollectionBoxBenchmark {
+    private CollectionBox box;
+    private CollectionBox emptyBox;
+
+    @Setup
+    public void setUp() throws ArgumentsException {
+        box = CollectionBoxFactory.createCollectionBox();
+        box.putMoney("PLN", 10.0);
+        box.putMoney("EUR", 20.0);
+        box.putMoney("GBP", 30.0);
+        emptyBox = CollectionBoxFactory.createCollectionBox();
+    }
+
+    @Benchmark
+    public CollectionBox putMoney() throws ArgumentsException {
+        box.putMoney("EUR", 1.25);
+        return box;
+    }
+
+    @Benchmark
+    public double getMoneyByCurrencyCode() throws ArgumentsException {
+        return box.getMoneyByCurrency("GBP");
+    }
+
+    @Benchmark
+    public double getMoneyByCurrency() {
+        return box.getMoneyByCurrency(Currencies.GBP);
+    }
+
+    @Benchmark
+    public Boolean isEmpty_nonEmptyBox() {
+        return box.isEmpty();
+    }
+
+    // Worst case: every currency has to be checked
+    @Benchmark
+    public Boolean isEmpty_emptyBox() {
+        return emptyBox.isEmpty();
+    }
+}
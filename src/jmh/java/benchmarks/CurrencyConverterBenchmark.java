@@ -0,0 +1,38 @@
+package benchmarks;
+
+import app.exceptions.arguments.InvalidCurrencyException;
+import app.models.Currencies;
+import app.services.CurrencyConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurrencyConverterBenchmark {
+    // Non-final fields keep the JIT from constant-folding the arguments
+    private String from = "PLN";
+    private String to = "EUR";
+    private Currencies fromCurrency = Currencies.PLN;
+    private Currencies toCurrency = Currencies.EUR;
+    private double amount = 123.45;
+
+    @Benchmark
+    public double convertCurrency_byCode() throws InvalidCurrencyException {
+        return CurrencyConverter.convertCurrency(from, to, amount);
+    }
+
+    @Benchmark
+    public double convertCurrency_sameCode() throws InvalidCurrencyException {
+        return CurrencyConverter.convertCurrency(from, from, amount);
+    }
+
+    @Benchmark
+    public double convertCurrency_byEnum() {
+        return CurrencyConverter.convertCurrency(fromCurrency, toCurrency, amount);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import app.models.ExchangeRates;
+import app.repositories.EntityCache;
+import app.repositories.FundraisingEventTransferRepository;
+import app.repositories.FundraisingEventTransferRepository.ChunkResult;
+import app.repositories.FundraisingEventTransferRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The transfer endpoint's path: {@code transferChunk} for one event against in-memory H2 behind
+ * a connection pool, in its own transaction. Entity cache eviction is left out, it has no
+ * Hibernate to talk to here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FundraisingEventBenchmark {
+    @Param({"1", "100"})
+    private int boxes;
+
+    private final ExchangeRates rates = ExchangeRates.defaults();
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactions;
+    private FundraisingEventTransferRepository repo;
+    private List<UUID> eventIds;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql"), new ClassPathResource("db/ledger.sql"))
+                .execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repo = new FundraisingEventTransferRepositoryImpl(jdbc, new EntityCache(null) {
+            @Override
+            public void evictAfterWrite(Class<?> entityType, Collection<UUID> ids) {
+            }
+        });
+        UUID eventId = UUID.randomUUID();
+        jdbc.update("INSERT INTO fundraising_events (uuid, version, name, currency, account_balance)"
+                + " VALUES (?, 0, 'Benchmark', 'EUR', 0)", eventId);
+        for (int i = 0; i < boxes; i++) {
+            jdbc.update("INSERT INTO collection_boxes (uuid, version, fundraising_event_id, balance_pln, balance_eur, balance_gbp)"
+                    + " VALUES (?, 0, ?, 0, 0, 0)", UUID.randomUUID(), eventId);
+        }
+        eventIds = List.of(eventId);
+    }
+
+    // Keeps the ledger from growing across iterations
+    @Setup(Level.Iteration)
+    public void clearLedger() {
+        jdbc.update("TRUNCATE TABLE ledger_entries");
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbc.execute("SHUTDOWN");
+        dataSource.close();
+    }
+
+    // The transfer empties the boxes, so each call refills them first with one UPDATE
+    @Benchmark
+    public ChunkResult transferMoney() {
+        return transactions.execute(status -> {
+            jdbc.update("UPDATE collection_boxes SET balance_pln = 1000, balance_eur = 2000, balance_gbp = 3000"
+                    + " WHERE fundraising_event_id = ?", eventIds.get(0));
+            return repo.transferChunk(eventIds, rates);
+        });
+    }
+
+    @Benchmark
+    public ChunkResult transferMoney_emptyBox() {
+        return transactions.execute(status -> repo.transferChunk(eventIds, rates));
+    }
+}
@@ -0,0 +1,31 @@
+package benchmarks;
+
+import app.factories.RandomUuidGenerator;
+import app.factories.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+    private final UuidV7Generator uuidV7 = new UuidV7Generator();
+    private final RandomUuidGenerator random = new RandomUuidGenerator();
+
+    @Benchmark
+    @Threads(4)
+    public UUID uuidV7() {
+        return uuidV7.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID random() {
+        return random.nextId();
+    }
+}
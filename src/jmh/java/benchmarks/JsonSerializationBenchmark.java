@@ -0,0 +1,65 @@
+package benchmarks;
+
+import app.dto.CollectionBoxResponse;
+import app.dto.FundraisingEventResponse;
+import app.exceptions.arguments.ArgumentsException;
+import app.exceptions.collection_box.CollectionBoxException;
+import app.exceptions.fundraising_event.FundraisingEventException;
+import app.factories.CollectionBoxFactory;
+import app.factories.FundraisingEventFactory;
+import app.models.CollectionBox;
+import app.models.FundraisingEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entities serialized through their Jackson annotations against the response records the
+ * controllers return. The response benchmarks include building the record from the entity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonSerializationBenchmark {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private CollectionBox unassignedBox;
+    private FundraisingEvent event;
+
+    @Setup
+    public void setUp() throws ArgumentsException, CollectionBoxException, FundraisingEventException {
+        unassignedBox = CollectionBoxFactory.createCollectionBox();
+        unassignedBox.putMoney("PLN", 12.5);
+
+        // Only an empty box can be assigned, so deposit afterwards
+        CollectionBox assignedBox = CollectionBoxFactory.createCollectionBox();
+        event = FundraisingEventFactory.createFundraisingEvent("Benchmark", "PLN");
+        event.assignCollectionBox(assignedBox);
+        assignedBox.putMoney("EUR", 40.0);
+        assignedBox.putMoney("GBP", 7.25);
+    }
+
+    @Benchmark
+    public byte[] serializeCollectionBox() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(unassignedBox);
+    }
+
+    @Benchmark
+    public byte[] serializeCollectionBoxResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(CollectionBoxResponse.of(unassignedBox));
+    }
+
+    @Benchmark
+    public byte[] serializeFundraisingEvent() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] serializeFundraisingEventResponse() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(FundraisingEventResponse.of(event));
+    }
+}
@@ -0,0 +1,37 @@
+package app.config;
+
+import app.services.CollectionBoxService;
+import app.services.ingestion.AsyncDepositService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class AsyncDepositConfig {
+
+    @Bean
+    public AsyncDepositService asyncDepositService(
+            CollectionBoxService boxService,
+            @Value("${charity.deposits.async.queue-capacity:10000}") int queueCapacity,
+            // Each busy worker holds one pooled connection
+            @Value("${charity.deposits.async.workers:2}") int workers,
+            @Value("${charity.deposits.async.batch-size:500}") int batchSize,
+            @Value("${charity.deposits.async.tracked-deposits:100000}") long trackedDeposits,
+            @Value("${charity.deposits.async.tracking-ttl:PT1H}") Duration trackingTtl
+    ) {
+        AtomicInteger threads = new AtomicInteger();
+        // Platform threads even with virtual threads on: the workers are few and never exit
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "async-deposits-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new AsyncDepositService(boxService, executor, workers, queueCapacity, batchSize,
+                trackedDeposits, trackingTtl);
+    }
+}
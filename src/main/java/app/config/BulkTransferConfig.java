@@ -0,0 +1,50 @@
+package app.config;
+
+import app.repositories.FundraisingEventRepository;
+import app.services.BulkTransferService;
+import app.services.CollectionBoxTotals;
+import app.services.report.FinancialReportCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class BulkTransferConfig {
+
+    @Bean
+    public BulkTransferService bulkTransferService(
+            FundraisingEventRepository repo,
+            PlatformTransactionManager transactionManager,
+            FinancialReportCache reportCache,
+            CollectionBoxTotals boxTotals,
+            @Value("${charity.transfer-all.chunk-size:500}") int chunkSize,
+            // Each worker holds one pooled connection for the length of its chunk
+            @Value("${charity.transfer-all.parallelism:4}") int parallelism,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, threadFactory(virtualThreads));
+        return new BulkTransferService(repo, new TransactionTemplate(transactionManager), reportCache,
+                boxTotals, executor, chunkSize);
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            // Still a bounded pool: parallelism is limited by connections, not by threads
+            return new VirtualThreadTaskExecutor("transfer-all-").getVirtualThreadFactory();
+        }
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "transfer-all-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,31 @@
+package app.config;
+
+import app.services.concurrency.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    @Bean
+    public ConcurrencyControl concurrencyControl(
+            PlatformTransactionManager transactionManager,
+            @Value("${charity.concurrency.strategy:optimistic}") String strategy,
+            @Value("${charity.concurrency.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${charity.concurrency.optimistic.base-backoff:PT0.005S}") Duration baseBackoff,
+            @Value("${charity.concurrency.optimistic.max-backoff:PT0.2S}") Duration maxBackoff,
+            @Value("${charity.concurrency.striped.stripes:1024}") int stripes
+    ) {
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        return switch (ConcurrencyStrategy.valueOf(strategy.trim().toUpperCase())) {
+            case OPTIMISTIC -> new OptimisticConcurrencyControl(transactions, maxAttempts, baseBackoff, maxBackoff);
+            case PESSIMISTIC -> new PessimisticConcurrencyControl(transactions);
+            case STRIPED -> new StripedConcurrencyControl(transactions, stripes);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package app.config;
+
+import app.repositories.CollectionBoxRepository;
+import app.repositories.DepositJournalRepository;
+import app.services.CollectionBoxTotals;
+import app.services.concurrency.ConcurrencyControl;
+import app.services.journal.DepositJournal;
+import app.services.journal.DepositJournalService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Only with charity.deposits.mode=journal; the default (direct) commits each deposit before responding
+@Configuration
+@ConditionalOnProperty(name = "charity.deposits.mode", havingValue = "journal")
+public class DepositJournalConfig {
+
+    @Bean
+    public DepositJournal depositJournal(
+            @Value("${charity.deposits.journal.dir:${charity.data-dir:./data}/journal}") String dir,
+            @Value("${charity.deposits.journal.segment-size:64MB}") DataSize segmentSize
+    ) throws IOException {
+        return DepositJournal.open(Path.of(dir), segmentSize.toBytes());
+    }
+
+    @Bean
+    public DepositJournalService depositJournalService(
+            DepositJournal journal,
+            CollectionBoxRepository repo,
+            DepositJournalRepository positions,
+            ConcurrencyControl concurrency,
+            CollectionBoxTotals totals,
+            @Value("${charity.deposits.journal.apply-interval:PT0.05S}") Duration applyInterval,
+            @Value("${charity.deposits.journal.apply-batch-size:1000}") int applyBatchSize
+    ) {
+        return new DepositJournalService(journal, repo, positions, concurrency, totals,
+                applyInterval, applyBatchSize);
+    }
+}
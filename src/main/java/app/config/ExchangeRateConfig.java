@@ -0,0 +1,39 @@
+package app.config;
+
+import app.services.exchange_rates.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class ExchangeRateConfig {
+
+    @Bean
+    public ExchangeRateProvider exchangeRateProvider(
+            @Value("${charity.exchange-rates.provider:static}") String provider,
+            @Value("${charity.exchange-rates.file:exchange-rates.json}") String file,
+            @Value("${charity.exchange-rates.url:http://localhost:8089/exchange-rates}") String url,
+            @Value("${charity.exchange-rates.http-timeout:PT2S}") Duration httpTimeout,
+            ObjectMapper objectMapper
+    ) {
+        return switch (provider) {
+            case "static" -> new StaticExchangeRateProvider();
+            case "file" -> new FileExchangeRateProvider(Path.of(file), objectMapper);
+            case "http" -> new HttpExchangeRateProvider(URI.create(url), httpTimeout, objectMapper);
+            default -> throw new IllegalArgumentException("Unknown exchange rate provider: " + provider);
+        };
+    }
+
+    @Bean
+    public ExchangeRateRefresher exchangeRateRefresher(
+            ExchangeRateProvider provider,
+            @Value("${charity.exchange-rates.ttl:PT5M}") Duration ttl
+    ) {
+        return new ExchangeRateRefresher(provider, ttl);
+    }
+}
@@ -0,0 +1,18 @@
+package app.config;
+
+import app.factories.IdGenerator;
+import app.factories.IdGenerators;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${charity.ids.generator:uuidv7}") String name) {
+        IdGenerator generator = IdGenerators.byName(name);
+        IdGenerators.use(generator);
+        return generator;
+    }
+}
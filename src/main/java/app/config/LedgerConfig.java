@@ -0,0 +1,25 @@
+package app.config;
+
+import app.repositories.LedgerRepository;
+import app.services.LedgerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class LedgerConfig {
+
+    @Bean
+    public LedgerService ledgerService(
+            LedgerRepository ledger,
+            PlatformTransactionManager transactionManager,
+            // PT0S turns the background snapshots off
+            @Value("${charity.ledger.snapshot-interval:PT1M}") Duration snapshotInterval
+    ) {
+        return new LedgerService(ledger, new TransactionTemplate(transactionManager), snapshotInterval);
+    }
+}
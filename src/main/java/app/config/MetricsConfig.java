@@ -0,0 +1,109 @@
+package app.config;
+
+import app.models.Currencies;
+import app.services.CollectionBoxTotals;
+import app.services.CurrencyConverter;
+import app.services.concurrency.ConcurrencyControl;
+import app.services.exchange_rates.ExchangeRateRefresher;
+import app.services.ingestion.AsyncDepositService;
+import app.services.report.FinancialReportCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateQueryMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Application meters. HTTP, JVM, connection pool and Hibernate session statistics are
+ * bound by Spring Boot; this adds per-query Hibernate timings and the charity.* gauges.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // hibernate.query.executions{query=...}: time spent in each HQL/JPQL query string
+    @Bean
+    public MeterBinder hibernateQueryMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> new HibernateQueryMetrics(entityManagerFactory.unwrap(SessionFactory.class),
+                "entityManagerFactory", Tags.empty()).bindTo(registry);
+    }
+
+    @Bean
+    public MeterBinder concurrencyMetrics(ConcurrencyControl concurrency) {
+        return registry -> {
+            Tags tags = Tags.of("strategy", concurrency.getStats().strategy().name().toLowerCase());
+            counter(registry, "charity.concurrency.executions", "Mutations run", tags,
+                    concurrency, control -> control.getStats().executions());
+            counter(registry, "charity.concurrency.contentions", "Mutations that hit a conflicting writer", tags,
+                    concurrency, control -> control.getStats().contentions());
+            counter(registry, "charity.concurrency.retries", "Optimistic retries", tags,
+                    concurrency, control -> control.getStats().retries());
+            counter(registry, "charity.concurrency.failures", "Mutations that gave up", tags,
+                    concurrency, control -> control.getStats().failures());
+        };
+    }
+
+    // The drain rate is the rate of charity.deposits.async.applied
+    @Bean
+    public MeterBinder asyncDepositMetrics(AsyncDepositService deposits) {
+        return registry -> {
+            Gauge.builder("charity.deposits.async.queue.depth", deposits, d -> d.getStats().queued())
+                    .description("Deposits waiting in the async queue")
+                    .register(registry);
+            Gauge.builder("charity.deposits.async.queue.capacity", deposits, d -> d.getStats().capacity())
+                    .description("Capacity of the async deposit queue")
+                    .register(registry);
+            counter(registry, "charity.deposits.async.accepted", "Deposits queued", Tags.empty(),
+                    deposits, d -> d.getStats().accepted());
+            counter(registry, "charity.deposits.async.throttled", "Deposits refused with 429 because the queue was full",
+                    Tags.empty(), deposits, d -> d.getStats().throttled());
+            counter(registry, "charity.deposits.async.applied", "Queued deposits applied to their box", Tags.empty(),
+                    deposits, d -> d.getStats().applied());
+            counter(registry, "charity.deposits.async.rejected", "Queued deposits for a box that does not exist",
+                    Tags.empty(), deposits, d -> d.getStats().rejected());
+            counter(registry, "charity.deposits.async.failed", "Queued deposits whose batch failed", Tags.empty(),
+                    deposits, d -> d.getStats().failed());
+            counter(registry, "charity.deposits.async.batches", "Batches applied by the workers", Tags.empty(),
+                    deposits, d -> d.getStats().batches());
+        };
+    }
+
+    @Bean
+    public MeterBinder charityGauges(FinancialReportCache reportCache,
+                                     ExchangeRateRefresher refresher,
+                                     CollectionBoxTotals boxTotals) {
+        return registry -> {
+            for (int i = 0; i < Currencies.count(); i++) {
+                Currencies currency = Currencies.fromOrdinal(i);
+                Gauge.builder("charity.boxes.total", boxTotals, t -> currency.toMajorUnits(t.getMinorUnits(currency)))
+                        .description("Money in all collection boxes")
+                        .tag("currency", currency.name())
+                        .register(registry);
+            }
+            Gauge.builder("charity.report.cache.events", reportCache, FinancialReportCache::size)
+                    .description("Events in the in-memory financial report")
+                    .register(registry);
+            Gauge.builder("charity.exchange_rates.stale", refresher, r -> r.isStale() ? 1 : 0)
+                    .description("1 when the exchange rates are older than their TTL")
+                    .tag("provider", refresher.getProviderName())
+                    .register(registry);
+            Gauge.builder("charity.exchange_rates.version", () -> CurrencyConverter.getExchangeRates().getVersion())
+                    .description("Version of the published exchange rate snapshot")
+                    .register(registry);
+        };
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, String description,
+                                    Tags tags, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.builder(name, source, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+}
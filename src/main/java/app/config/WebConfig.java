@@ -0,0 +1,45 @@
+package app.config;
+
+import app.repositories.IdempotencyKeyRepository;
+import app.web.IdempotencyFilter;
+import app.web.RequestBulkheadFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+public class WebConfig {
+
+    // Off (0) by default; the virtual-threads profile sizes it to the connection pool
+    @Bean
+    @ConditionalOnExpression("${charity.bulkhead.max-concurrent-requests:0} > 0")
+    public FilterRegistrationBean<RequestBulkheadFilter> requestBulkheadFilter(
+            @Value("${charity.bulkhead.max-concurrent-requests}") int maxConcurrentRequests,
+            @Value("${charity.bulkhead.acquire-timeout:PT5S}") Duration acquireTimeout
+    ) {
+        FilterRegistrationBean<RequestBulkheadFilter> registration =
+                new FilterRegistrationBean<>(new RequestBulkheadFilter(maxConcurrentRequests, acquireTimeout));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    // Ahead of the bulkhead, so a replayed response never waits for a permit
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyKeyRepository repo,
+            @Value("${charity.idempotency.max-cached-responses:100000}") long maxCachedResponses,
+            @Value("${charity.idempotency.ttl:PT24H}") Duration ttl
+    ) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(repo, maxCachedResponses, ttl, Clock.systemUTC()));
+        registration.addUrlPatterns("/api/boxes/*", "/api/events/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,53 @@
+package app.controllers;
+
+import app.dto.AsyncDepositStatus;
+import app.exceptions.arguments.ArgumentsException;
+import app.services.ingestion.AsyncDepositService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/boxes")
+public class AsyncDepositController {
+
+    private final AsyncDepositService service;
+    private final String retryAfterSeconds;
+
+    public AsyncDepositController(AsyncDepositService service,
+                                  @Value("${charity.deposits.async.retry-after:PT1S}") Duration retryAfter) {
+        this.service = service;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    /**
+     * 202 with a tracking id once the deposit is queued, or 429 with Retry-After when the
+     * queue is full.
+     */
+    @PatchMapping("/{id}/money/async")
+    public ResponseEntity<AsyncDepositStatus> putMoneyAsync(
+            @PathVariable("id") UUID id,
+            @RequestParam("currency") String currency,
+            @RequestParam("amount") double amount
+    ) throws ArgumentsException {
+        Optional<AsyncDepositStatus> queued = service.submit(id, currency, amount);
+        if (queued.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build();
+        }
+        return ResponseEntity.accepted().body(queued.get());
+    }
+
+    // 404 once the status has expired from tracking
+    @GetMapping("/money/async/{trackingId}")
+    public ResponseEntity<AsyncDepositStatus> getStatus(@PathVariable("trackingId") UUID trackingId) {
+        return ResponseEntity.of(service.getStatus(trackingId));
+    }
+}
@@ -0,0 +1,25 @@
+package app.controllers;
+
+import app.dto.CacheRegionStats;
+import app.repositories.EntityCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheController {
+
+    private final EntityCache entityCache;
+
+    public CacheController(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    @GetMapping
+    public List<CacheRegionStats> getStats() {
+        return entityCache.getStatistics();
+    }
+}
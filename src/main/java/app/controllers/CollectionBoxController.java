@@ -1,10 +1,18 @@
 package app.controllers;
 
+import app.dto.BatchDepositResponse;
+import app.dto.BoxBalance;
+import app.dto.BoxTotals;
+import app.dto.CollectionBoxResponse;
+import app.dto.DepositRequest;
+import app.dto.KeysetPage;
 import app.exceptions.arguments.ArgumentsException;
 import app.exceptions.collection_box.CollectionBoxException;
-import app.models.CollectionBox;
 import app.services.CollectionBoxService;
+import app.services.journal.DepositJournalService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,20 +23,34 @@ import java.util.UUID;
 public class CollectionBoxController {
 
     private final CollectionBoxService service;
+    // Present only with charity.deposits.mode=journal
+    private final DepositJournalService journal;
 
-    public CollectionBoxController(CollectionBoxService service) {
+    public CollectionBoxController(CollectionBoxService service, @Nullable DepositJournalService journal) {
         this.service = service;
+        this.journal = journal;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public CollectionBox createBox() {
-        return service.registerBox();
+    public CollectionBoxResponse createBox() {
+        return CollectionBoxResponse.of(service.registerBox());
     }
 
     @GetMapping
-    public List<CollectionBox> getAll() {
-        return service.listAll();
+    public KeysetPage<CollectionBoxResponse> getAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit
+    ) throws ArgumentsException {
+        return service.listPage(after, limit);
+    }
+
+    /**
+     * Money in all boxes per currency, read from in-memory counters.
+     */
+    @GetMapping("/totals")
+    public BoxTotals getTotals() {
+        return service.getTotals();
     }
 
     @DeleteMapping("/{id}")
@@ -37,17 +59,31 @@ public class CollectionBoxController {
         service.unregisterBox(id);
     }
 
+    /**
+     * 200 with the new {@link BoxBalance}, or in journal mode 202 with a
+     * {@link app.dto.DepositReceipt} once the deposit is durable in the journal.
+     */
     @PatchMapping("/{id}/money")
-    public CollectionBox putMoney(
+    public ResponseEntity<?> putMoney(
             @PathVariable("id") UUID id,
             @RequestParam("currency") String currency,
             @RequestParam("amount") double amount
     ) throws CollectionBoxException, ArgumentsException {
-        return service.putMoney(id, currency, amount);
+        if (journal != null) {
+            return ResponseEntity.accepted().body(journal.accept(id, currency, amount));
+        }
+        return ResponseEntity.ok(service.putMoney(id, currency, amount));
+    }
+
+    @PostMapping("/money/batch")
+    public BatchDepositResponse putMoneyBatch(
+            @RequestBody List<DepositRequest> deposits
+    ) throws ArgumentsException {
+        return service.putMoneyBatch(deposits);
     }
 
     @PatchMapping("/{id}/empty")
-    public CollectionBox empty(@PathVariable("id") UUID id) throws CollectionBoxException {
-        return service.emptyBox(id);
+    public CollectionBoxResponse empty(@PathVariable("id") UUID id) throws CollectionBoxException {
+        return CollectionBoxResponse.of(service.emptyBox(id));
     }
 }
@@ -0,0 +1,23 @@
+package app.controllers;
+
+import app.services.concurrency.ConcurrencyControl;
+import app.services.concurrency.ConcurrencyStats;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/concurrency")
+public class ConcurrencyController {
+
+    private final ConcurrencyControl concurrency;
+
+    public ConcurrencyController(ConcurrencyControl concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    @GetMapping
+    public ConcurrencyStats getStats() {
+        return concurrency.getStats();
+    }
+}
@@ -0,0 +1,25 @@
+package app.controllers;
+
+import app.dto.DepositJournalStats;
+import app.services.journal.DepositJournalService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/deposit-journal")
+@ConditionalOnProperty(name = "charity.deposits.mode", havingValue = "journal")
+public class DepositJournalController {
+
+    private final DepositJournalService journal;
+
+    public DepositJournalController(DepositJournalService journal) {
+        this.journal = journal;
+    }
+
+    @GetMapping
+    public DepositJournalStats getStats() {
+        return journal.getStats();
+    }
+}
@@ -0,0 +1,39 @@
+package app.controllers;
+
+import app.exceptions.arguments.ArgumentsException;
+import app.models.ExchangeRates;
+import app.services.CurrencyConverter;
+import app.services.exchange_rates.ExchangeRateRefresher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/exchange-rates")
+public class ExchangeRateController {
+    private final ExchangeRateRefresher refresher;
+
+    public ExchangeRateController(ExchangeRateRefresher refresher) {
+        this.refresher = refresher;
+    }
+
+    @GetMapping
+    public ExchangeRates getExchangeRates() {
+        return CurrencyConverter.getExchangeRates();
+    }
+
+    // Pinned: provider refreshes leave the table alone until the override is deleted
+    @PutMapping
+    public ExchangeRates replaceExchangeRates(
+            @RequestBody Map<String, Double> rates
+    ) throws ArgumentsException {
+        return CurrencyConverter.pinExchangeRates(ExchangeRates.of(rates, "admin"));
+    }
+
+    @DeleteMapping("/override")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clearOverride() {
+        refresher.clearOverride();
+    }
+}
@@ -1,13 +1,22 @@
 package app.controllers;
 
+import app.dto.FundraisingEventResponse;
+import app.dto.FundraisingEventSummary;
+import app.dto.KeysetPage;
+import app.dto.TransferAllResponse;
 import app.exceptions.arguments.ArgumentsException;
 import app.exceptions.collection_box.CollectionBoxException;
 import app.exceptions.fundraising_event.FundraisingEventException;
 import app.models.FinancialReportProjection;
-import app.models.FundraisingEvent;
+import app.services.BulkTransferService;
 import app.services.FundraisingEventService;
+import app.services.report.FinancialReportFormat;
+import app.services.report.FinancialReportWriter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,23 +26,29 @@ import java.util.UUID;
 public class FundraisingEventController {
 
     private final FundraisingEventService service;
+    private final BulkTransferService bulkTransferService;
 
-    public FundraisingEventController(FundraisingEventService service) {
+    public FundraisingEventController(FundraisingEventService service,
+                                      BulkTransferService bulkTransferService) {
         this.service = service;
+        this.bulkTransferService = bulkTransferService;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public FundraisingEvent createFundraisingEvent(
+    public FundraisingEventResponse createFundraisingEvent(
             @RequestParam("name") String name,
             @RequestParam("currency") String currency
     ) {
-        return service.createFundraisingEvent(name, currency);
+        return FundraisingEventResponse.of(service.createFundraisingEvent(name, currency));
     }
 
     @GetMapping
-    public List<FundraisingEvent> listAll() {
-        return service.listAll();
+    public KeysetPage<FundraisingEventSummary> listAll(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "" + KeysetPage.DEFAULT_LIMIT) int limit
+    ) throws ArgumentsException {
+        return service.listPage(after, limit);
     }
 
     @GetMapping("/financial-report")
@@ -41,8 +56,30 @@ public class FundraisingEventController {
         return service.getFinancialReport();
     }
 
+    @GetMapping(value = "/financial-report/stream", produces = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<StreamingResponseBody> streamFinancialReport(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        FinancialReportFormat format = FinancialReportFormat.fromAcceptHeader(accept);
+        StreamingResponseBody body = out -> {
+            try (FinancialReportWriter writer = FinancialReportWriter.create(format, out)) {
+                service.streamFinancialReport(writer);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
+    @PostMapping("/transfer-all")
+    public TransferAllResponse transferAll(
+            @RequestBody(required = false) List<UUID> eventIds
+    ) {
+        return bulkTransferService.transferAll(eventIds);
+    }
+
     @GetMapping("/{id}")
-    public FundraisingEvent getFundraisingEventById(
+    public FundraisingEventResponse getFundraisingEventById(
             @PathVariable("id") UUID id
     ) throws FundraisingEventException {
         return service.getFundraisingEventById(id);
@@ -65,12 +102,22 @@ public class FundraisingEventController {
         service.assignCollectionBoxToFundraisingEvent(eventId, boxId);
     }
 
-    @DeleteMapping("/{eventId}/collection-box")
+    @DeleteMapping("/{eventId}/boxes/{boxId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void unregisterCollectionBoxFromFundraisingEvent(
+            @PathVariable("eventId") UUID eventId,
+            @PathVariable("boxId") UUID boxId
+    ) throws FundraisingEventException, CollectionBoxException {
+        service.unregisterCollectionBoxFromFundraisingEvent(eventId, boxId);
+    }
+
+    // Unassigns every box of the event
+    @DeleteMapping("/{eventId}/collection-box")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unregisterCollectionBoxesFromFundraisingEvent(
             @PathVariable("eventId") UUID eventId
     ) throws FundraisingEventException, CollectionBoxException {
-        service.unregisterCollectionBoxFromFundraisingEvent(eventId);
+        service.unregisterCollectionBoxesFromFundraisingEvent(eventId);
     }
 
     @PostMapping("/{eventId}/transfer")
@@ -0,0 +1,30 @@
+package app.controllers;
+
+import app.dto.LedgerReconciliation;
+import app.dto.LedgerSnapshotResult;
+import app.services.LedgerService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/ledger")
+public class LedgerController {
+
+    private final LedgerService service;
+
+    public LedgerController(LedgerService service) {
+        this.service = service;
+    }
+
+    @GetMapping("/reconciliation")
+    public LedgerReconciliation reconcile() {
+        return service.reconcile();
+    }
+
+    @PostMapping("/snapshots")
+    public LedgerSnapshotResult snapshot() {
+        return service.snapshot();
+    }
+}
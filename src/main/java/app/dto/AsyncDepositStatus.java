@@ -0,0 +1,28 @@
+package app.dto;
+
+import java.util.UUID;
+
+/**
+ * Where a deposit accepted by the async endpoint is. {@code error} is set for REJECTED and
+ * FAILED; a FAILED deposit was not applied and can be sent again.
+ */
+public record AsyncDepositStatus(UUID trackingId,
+                                 UUID boxId,
+                                 String currency,
+                                 double amount,
+                                 State state,
+                                 String error) {
+
+    public enum State {
+        QUEUED,
+        APPLIED,
+        // The box does not exist
+        REJECTED,
+        // The batch could not be written, e.g. the database was unavailable
+        FAILED
+    }
+
+    public AsyncDepositStatus withState(State state, String error) {
+        return new AsyncDepositStatus(trackingId, boxId, currency, amount, state, error);
+    }
+}
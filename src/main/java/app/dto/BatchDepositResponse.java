@@ -0,0 +1,16 @@
+package app.dto;
+
+import java.util.List;
+
+public record BatchDepositResponse(int applied, int rejected, List<DepositResult> results) {
+
+    public static BatchDepositResponse of(List<DepositResult> results) {
+        int applied = 0;
+        for (DepositResult result : results) {
+            if (result.status() == DepositResult.Status.APPLIED) {
+                applied++;
+            }
+        }
+        return new BatchDepositResponse(applied, results.size() - applied, results);
+    }
+}
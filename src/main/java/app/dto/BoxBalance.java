@@ -0,0 +1,6 @@
+package app.dto;
+
+import java.util.UUID;
+
+public record BoxBalance(UUID boxId, String currency, double balance) {
+}
@@ -0,0 +1,10 @@
+package app.dto;
+
+import java.util.Map;
+
+/**
+ * Money in all collection boxes together, by currency. Every supported currency is listed,
+ * with 0.0 when no box holds any.
+ */
+public record BoxTotals(Map<String, Double> totals) {
+}
@@ -0,0 +1,5 @@
+package app.dto;
+
+// No entry count: the JCache regions do not expose one, and Hibernate reports it as Long.MIN_VALUE
+public record CacheRegionStats(String region, long hits, long misses, long puts) {
+}
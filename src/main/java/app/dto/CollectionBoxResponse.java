@@ -0,0 +1,15 @@
+package app.dto;
+
+import app.models.CollectionBox;
+
+import java.util.UUID;
+
+/**
+ * Public view of a collection box: whether it is empty and whether it is assigned, never the amounts.
+ */
+public record CollectionBoxResponse(UUID uuid, Boolean empty, Boolean assignedToFundraisingEvent) {
+
+    public static CollectionBoxResponse of(CollectionBox box) {
+        return new CollectionBoxResponse(box.getUuid(), box.isEmpty(), box.isAssignedToFundraisingEvent());
+    }
+}
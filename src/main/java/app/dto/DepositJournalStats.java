@@ -0,0 +1,16 @@
+package app.dto;
+
+import java.util.UUID;
+
+/**
+ * {@code pending} deposits are durable but not yet applied; {@code dropped} counts
+ * deposits skipped when applied: their box no longer existed, or the database refused them
+ * (for example because the balance would overflow).
+ */
+public record DepositJournalStats(UUID journalId,
+                                  long lastSequence,
+                                  long appliedSequence,
+                                  long pending,
+                                  long dropped,
+                                  int segments) {
+}
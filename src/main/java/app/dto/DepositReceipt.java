@@ -0,0 +1,9 @@
+package app.dto;
+
+import java.util.UUID;
+
+/**
+ * A deposit that is durable in the journal but not yet applied to the box balance.
+ */
+public record DepositReceipt(UUID boxId, String currency, double amount, long sequence) {
+}
@@ -0,0 +1,6 @@
+package app.dto;
+
+import java.util.UUID;
+
+public record DepositRequest(UUID boxId, String currency, double amount) {
+}
@@ -0,0 +1,19 @@
+package app.dto;
+
+import java.util.UUID;
+
+public record DepositResult(int index, UUID boxId, Status status, String error) {
+
+    public enum Status {
+        APPLIED,
+        REJECTED
+    }
+
+    public static DepositResult applied(int index, UUID boxId) {
+        return new DepositResult(index, boxId, Status.APPLIED, null);
+    }
+
+    public static DepositResult rejected(int index, UUID boxId, String error) {
+        return new DepositResult(index, boxId, Status.REJECTED, error);
+    }
+}
@@ -0,0 +1,19 @@
+package app.dto;
+
+import java.util.UUID;
+
+/**
+ * An event joined to one of its boxes, with the box balance columns in Currencies order.
+ * The box fields are null for an event without boxes. Folded into a
+ * {@link FundraisingEventResponse} by {@link FundraisingEventResponse#of(java.util.List)}.
+ */
+public record FundraisingEventBoxRow(UUID uuid,
+                                     String name,
+                                     String currency,
+                                     Double accountBalance,
+                                     Long lastTransferRatesVersion,
+                                     UUID boxId,
+                                     Long balancePln,
+                                     Long balanceEur,
+                                     Long balanceGbp) {
+}
@@ -0,0 +1,88 @@
+package app.dto;
+
+import app.models.CollectionBox;
+import app.models.Currencies;
+import app.models.FundraisingEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Public view of a fundraising event. {@code collectionBoxes} lists every assigned box with
+ * the money waiting in it for the next transfer; {@code boxBalances} adds those up by
+ * currency over all the boxes.
+ */
+public record FundraisingEventResponse(UUID uuid,
+                                       String name,
+                                       String currency,
+                                       Double accountBalance,
+                                       Long lastTransferRatesVersion,
+                                       Map<String, Double> boxBalances,
+                                       List<AssignedBox> collectionBoxes) {
+
+    public static FundraisingEventResponse of(FundraisingEvent event) {
+        long[] totals = new long[Currencies.count()];
+        List<AssignedBox> boxes = new ArrayList<>(event.getCollectionBoxes().size());
+        for (CollectionBox box : event.getCollectionBoxes()) {
+            long[] minorUnits = new long[Currencies.count()];
+            for (int i = 0; i < minorUnits.length; i++) {
+                minorUnits[i] = box.getMinorUnits(Currencies.fromOrdinal(i));
+                totals[i] += minorUnits[i];
+            }
+            boxes.add(AssignedBox.of(box.getUuid(), minorUnits));
+        }
+        return new FundraisingEventResponse(event.getUuid(), event.getName(), event.getCurrency(),
+                event.getAccountBalance(), event.getLastTransferRatesVersion(), balances(totals),
+                Collections.unmodifiableList(boxes));
+    }
+
+    /**
+     * Folds the rows of one event, one per box, into its response. {@code rows} must not be empty.
+     */
+    public static FundraisingEventResponse of(List<FundraisingEventBoxRow> rows) {
+        FundraisingEventBoxRow event = rows.get(0);
+        long[] totals = new long[Currencies.count()];
+        List<AssignedBox> boxes = new ArrayList<>(rows.size());
+        for (FundraisingEventBoxRow row : rows) {
+            if (row.boxId() == null) {
+                continue;
+            }
+            long[] minorUnits = {row.balancePln(), row.balanceEur(), row.balanceGbp()};
+            for (int i = 0; i < minorUnits.length; i++) {
+                totals[i] += minorUnits[i];
+            }
+            boxes.add(AssignedBox.of(row.boxId(), minorUnits));
+        }
+        return new FundraisingEventResponse(event.uuid(), event.name(), event.currency(),
+                event.accountBalance(), event.lastTransferRatesVersion(), balances(totals),
+                Collections.unmodifiableList(boxes));
+    }
+
+    // Sparse: currencies with nothing in them are left out
+    private static Map<String, Double> balances(long[] minorUnits) {
+        Map<String, Double> balances = new LinkedHashMap<>();
+        for (int i = 0; i < minorUnits.length; i++) {
+            if (minorUnits[i] != 0L) {
+                Currencies currency = Currencies.fromOrdinal(i);
+                balances.put(currency.name(), currency.toMajorUnits(minorUnits[i]));
+            }
+        }
+        return Collections.unmodifiableMap(balances);
+    }
+
+    /**
+     * {@code balances} is sparse: currencies with nothing in the box are left out, so an
+     * empty box has an empty map.
+     */
+    public record AssignedBox(UUID uuid, Boolean empty, Map<String, Double> balances) {
+
+        static AssignedBox of(UUID uuid, long... minorUnits) {
+            Map<String, Double> balances = FundraisingEventResponse.balances(minorUnits);
+            return new AssignedBox(uuid, balances.isEmpty(), balances);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package app.dto;
+
+import java.util.UUID;
+
+/**
+ * Flat listing row for a fundraising event and its boxes, read with a single grouped query.
+ * {@code collectionBoxesEmpty} is null when no box is assigned.
+ */
+public record FundraisingEventSummary(UUID uuid,
+                                      String name,
+                                      String currency,
+                                      Double accountBalance,
+                                      Long lastTransferRatesVersion,
+                                      Long collectionBoxCount,
+                                      Boolean collectionBoxesEmpty) {
+}
@@ -0,0 +1,14 @@
+package app.dto;
+
+import java.time.Instant;
+
+/**
+ * A response stored under an Idempotency-Key. {@code fingerprint} identifies the request it
+ * answered, so the key cannot be replayed against a different one.
+ */
+public record IdempotentResponse(String fingerprint,
+                                 int status,
+                                 String contentType,
+                                 byte[] body,
+                                 Instant createdAt) {
+}
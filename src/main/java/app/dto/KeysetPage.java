@@ -0,0 +1,63 @@
+package app.dto;
+
+import app.exceptions.arguments.InvalidPaginationException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * One page of a listing ordered by id. {@code nextCursor} is an opaque token to pass as
+ * {@code after} for the following page, or null on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Builds a page from up to {@code limit + 1} rows; the extra row only signals that
+     * another page exists and is not returned.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int limit, Function<T, UUID> idOf) {
+        if (rows.size() <= limit) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new KeysetPage<>(items, encodeCursor(idOf.apply(items.get(limit - 1))));
+    }
+
+    public static void checkLimit(int limit) throws InvalidPaginationException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidPaginationException("Invalid limit: " + limit + " (expected 1 to " + MAX_LIMIT + ")");
+        }
+    }
+
+    public static String encodeCursor(UUID id) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // Accepts a cursor returned by a previous page, or a plain UUID
+    public static UUID decodeCursor(String cursor) throws InvalidPaginationException {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            if (cursor.length() == 36) {
+                return UUID.fromString(cursor);
+            }
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != 16) {
+                throw new IllegalArgumentException();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPaginationException("Invalid cursor: " + cursor);
+        }
+    }
+}
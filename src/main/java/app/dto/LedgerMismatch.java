@@ -0,0 +1,12 @@
+package app.dto;
+
+import java.util.UUID;
+
+/**
+ * A balance whose stored value differs from the one rebuilt from the ledger, in major units.
+ * {@code kind} is {@code "box"} or {@code "event"}.
+ */
+public record LedgerMismatch(String kind, UUID id, String currency, double ledger, double live) {
+    public static final String BOX = "box";
+    public static final String EVENT = "event";
+}
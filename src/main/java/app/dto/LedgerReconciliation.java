@@ -0,0 +1,6 @@
+package app.dto;
+
+import java.util.List;
+
+public record LedgerReconciliation(int boxes, int events, long elapsedMillis, List<LedgerMismatch> mismatches) {
+}
@@ -0,0 +1,4 @@
+package app.dto;
+
+public record LedgerSnapshotResult(int boxes, int events, long elapsedMillis) {
+}
@@ -0,0 +1,15 @@
+package app.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk transfer. {@code skipped} counts events whose box was already empty.
+ */
+public record TransferAllResponse(int events,
+                                  int transferred,
+                                  int skipped,
+                                  int failed,
+                                  long exchangeRatesVersion,
+                                  long elapsedMillis,
+                                  List<TransferFailure> failures) {
+}
@@ -0,0 +1,6 @@
+package app.dto;
+
+import java.util.UUID;
+
+public record TransferFailure(UUID eventId, String error) {
+}
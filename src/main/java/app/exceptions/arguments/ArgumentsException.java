@@ -1,5 +1,9 @@
 package app.exceptions.arguments;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public abstract class ArgumentsException extends Exception {
     protected ArgumentsException(String message) {
         super(message);
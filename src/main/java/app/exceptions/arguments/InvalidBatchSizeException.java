@@ -0,0 +1,7 @@
+package app.exceptions.arguments;
+
+public class InvalidBatchSizeException extends ArgumentsException {
+    public InvalidBatchSizeException(int size, int maxSize) {
+        super("Invalid batch size: " + size + " (expected 1 to " + maxSize + ")");
+    }
+}
@@ -0,0 +1,7 @@
+package app.exceptions.arguments;
+
+public class InvalidExchangeRateException extends ArgumentsException {
+    public InvalidExchangeRateException(String message) {
+        super(message);
+    }
+}
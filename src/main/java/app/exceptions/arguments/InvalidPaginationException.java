@@ -0,0 +1,7 @@
+package app.exceptions.arguments;
+
+public class InvalidPaginationException extends ArgumentsException {
+    public InvalidPaginationException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,6 @@ import app.models.CollectionBox;
 public class CollectionBoxFactory {
 
     public static CollectionBox createCollectionBox() {
-        return new CollectionBox();
+        return new CollectionBox(IdGenerators.nextId());
     }
 }
@@ -4,6 +4,6 @@ import app.models.FundraisingEvent;
 
 public class FundraisingEventFactory {
     public static FundraisingEvent createFundraisingEvent(String name, String currency) {
-        return new FundraisingEvent(name, currency);
+        return new FundraisingEvent(IdGenerators.nextId(), name, currency);
     }
 }
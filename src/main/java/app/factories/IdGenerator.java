@@ -0,0 +1,13 @@
+package app.factories;
+
+import java.util.UUID;
+
+/**
+ * Source of primary keys for new entities. Selected with {@code charity.ids.generator}.
+ */
+public interface IdGenerator {
+
+    UUID nextId();
+
+    String getName();
+}
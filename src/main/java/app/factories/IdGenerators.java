@@ -0,0 +1,32 @@
+package app.factories;
+
+import java.util.UUID;
+
+/**
+ * The generator the factories use. Defaults to UUIDv7; replaced at startup from configuration.
+ */
+public final class IdGenerators {
+    private static volatile IdGenerator current = new UuidV7Generator();
+
+    private IdGenerators() {}
+
+    public static UUID nextId() {
+        return current.nextId();
+    }
+
+    public static IdGenerator current() {
+        return current;
+    }
+
+    public static void use(IdGenerator generator) {
+        current = generator;
+    }
+
+    public static IdGenerator byName(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "uuidv7" -> new UuidV7Generator();
+            case "random" -> new RandomUuidGenerator();
+            default -> throw new IllegalArgumentException("Unknown id generator: " + name);
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package app.factories;
+
+import java.util.UUID;
+
+/**
+ * Version 4 (random) UUIDs. Inserts land at random points in the primary key index.
+ */
+public class RandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+}
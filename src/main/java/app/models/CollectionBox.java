@@ -1,12 +1,10 @@
 package app.models;
 
-import java.util.Hashtable;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.UUID;
 
 import app.exceptions.arguments.ArgumentsException;
 import app.exceptions.arguments.InvalidAmountException;
-import app.exceptions.arguments.InvalidCurrencyException;
 import app.exceptions.collection_box.CollectionBoxException;
 import app.exceptions.collection_box.InvalidCollectionBoxException;
 import app.exceptions.fundraising_event.FundraisingEventException;
@@ -14,48 +12,62 @@ import app.exceptions.fundraising_event.InvalidEventAssignmentException;
 import app.exceptions.fundraising_event.InvalidFundraisingEventException;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "collection_boxes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CollectionBox.CACHE_REGION)
 public class CollectionBox {
+    public static final String CACHE_REGION = "collection-boxes";
+
     @Id
     private UUID uuid;
 
-    @OneToOne(mappedBy = "collectionBox")
+    @Version
+    private long version;
+
+    // The box owns the foreign key so the event can stay a lazy proxy: loading a box never
+    // queries fundraising_events, and isAssignedToFundraisingEvent() only checks the column.
+    // An event can have many boxes, so deposits from different volunteers update different rows.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "fundraising_event_id", referencedColumnName = "uuid")
     @JsonBackReference
     private FundraisingEvent fundraisingEvent;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(
-            name = "collection_box_money",
-            joinColumns = @JoinColumn(name = "collection_box_id")
-    )
-    @MapKeyColumn(name = "currency")
-    @Column(name = "amount", nullable = false)
-    private Map<String, Double> money = new Hashtable<>();
-
-    public CollectionBox() {
-        this.uuid = UUID.randomUUID();
-        for (Currencies currency : Currencies.values()) {
-            money.put(currency.toString(), 0.0);
-        }
+    // Balances in minor units (e.g. grosze, cents), indexed by Currencies.ordinal().
+    // Persisted as one column per currency through the property accessors below.
+    @Transient
+    private final long[] balances = new long[Currencies.count()];
+
+    public CollectionBox(UUID uuid) {
+        this.uuid = uuid;
     }
 
+    protected CollectionBox() {}
+
     public void putMoney(String currency, double amount) throws ArgumentsException {
-        if (amount <= 0) {
+        Currencies parsed = Currencies.parse(currency);
+        long minorUnits = parsed.toDepositMinorUnits(amount);
+        int index = parsed.ordinal();
+        try {
+            balances[index] = Math.addExact(balances[index], minorUnits);
+        } catch (ArithmeticException e) {
             throw new InvalidAmountException(amount);
         }
-        if (currency == null || !money.containsKey(currency)) {
-            throw new InvalidCurrencyException(currency);
-        }
-        money.put(currency, amount);
     }
 
-    public Double getMoneyByCurrency(String currency) throws ArgumentsException {
-        if (currency == null || !money.containsKey(currency)) {
-            throw new InvalidCurrencyException(currency);
-        }
-        return money.get(currency);
+    public double getMoneyByCurrency(String currency) throws ArgumentsException {
+        return getMoneyByCurrency(Currencies.parse(currency));
+    }
+
+    public double getMoneyByCurrency(Currencies currency) {
+        return currency.toMajorUnits(balances[currency.ordinal()]);
+    }
+
+    public long getMinorUnits(Currencies currency) {
+        return balances[currency.ordinal()];
     }
 
     public UUID getUuid() {
@@ -63,14 +75,12 @@ public class CollectionBox {
     }
 
     public void emptyBoxFully() {
-        money.replaceAll((c, v) -> 0.0);
+        Arrays.fill(balances, 0L);
     }
 
     public Boolean isEmpty(){
-        for(Currencies currency : Currencies.values())
-        {
-            if(money.get(currency.toString()) != 0.0)
-            {
+        for (long balance : balances) {
+            if (balance != 0L) {
                 return false;
             }
         }
@@ -106,4 +116,34 @@ public class CollectionBox {
     public Boolean isAssignedToFundraisingEvent() {
         return fundraisingEvent != null;
     }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "balance_pln", nullable = false)
+    protected long getBalancePln() {
+        return balances[Currencies.PLN.ordinal()];
+    }
+
+    protected void setBalancePln(long minorUnits) {
+        balances[Currencies.PLN.ordinal()] = minorUnits;
+    }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "balance_eur", nullable = false)
+    protected long getBalanceEur() {
+        return balances[Currencies.EUR.ordinal()];
+    }
+
+    protected void setBalanceEur(long minorUnits) {
+        balances[Currencies.EUR.ordinal()] = minorUnits;
+    }
+
+    @Access(AccessType.PROPERTY)
+    @Column(name = "balance_gbp", nullable = false)
+    protected long getBalanceGbp() {
+        return balances[Currencies.GBP.ordinal()];
+    }
+
+    protected void setBalanceGbp(long minorUnits) {
+        balances[Currencies.GBP.ordinal()] = minorUnits;
+    }
 }
@@ -1,7 +1,81 @@
 package app.models;
 
+import app.exceptions.arguments.InvalidAmountException;
+import app.exceptions.arguments.InvalidCurrencyException;
+
 public enum Currencies {
-    PLN,
-    EUR,
-    GBP
+    PLN(2),
+    EUR(2),
+    GBP(2);
+
+    private static final Currencies[] VALUES = values();
+
+    private final int fractionDigits;
+    private final long minorUnitsPerMajor;
+
+    Currencies(int fractionDigits) {
+        this.fractionDigits = fractionDigits;
+        this.minorUnitsPerMajor = (long) Math.pow(10, fractionDigits);
+    }
+
+    public int getFractionDigits() {
+        return fractionDigits;
+    }
+
+    public long getMinorUnitsPerMajor() {
+        return minorUnitsPerMajor;
+    }
+
+    public long toMinorUnits(double amount) {
+        return Math.round(amount * minorUnitsPerMajor);
+    }
+
+    public double toMajorUnits(long minorUnits) {
+        return (double) minorUnits / minorUnitsPerMajor;
+    }
+
+    // Validates a deposit amount and converts it; amounts below one minor unit are rejected.
+    public long toDepositMinorUnits(double amount) throws InvalidAmountException {
+        checkDepositAmount(amount);
+        long minorUnits = toMinorUnits(amount);
+        if (minorUnits <= 0 || minorUnits == Long.MAX_VALUE) {
+            throw new InvalidAmountException(amount);
+        }
+        return minorUnits;
+    }
+
+    private static void checkDepositAmount(double amount) throws InvalidAmountException {
+        if (!(amount > 0) || Double.isInfinite(amount)) {
+            throw new InvalidAmountException(amount);
+        }
+    }
+
+    public static Currencies parse(String code) throws InvalidCurrencyException {
+        Currencies currency = fromCode(code);
+        if (currency == null) {
+            throw new InvalidCurrencyException(code);
+        }
+        return currency;
+    }
+
+    // Returns null instead of throwing so callers on the hot path can decide how to fail.
+    public static Currencies fromCode(String code) {
+        if (code == null) {
+            return null;
+        }
+        for (Currencies currency : VALUES) {
+            if (currency.name().equals(code)) {
+                return currency;
+            }
+        }
+        return null;
+    }
+
+    public static Currencies fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
 }
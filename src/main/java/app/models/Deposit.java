@@ -0,0 +1,16 @@
+package app.models;
+
+import app.exceptions.arguments.ArgumentsException;
+
+import java.util.UUID;
+
+/**
+ * A validated deposit into a collection box, with the amount in minor units.
+ */
+public record Deposit(UUID boxId, Currencies currency, long minorUnits) {
+
+    public static Deposit of(UUID boxId, String currency, double amount) throws ArgumentsException {
+        Currencies parsed = Currencies.parse(currency);
+        return new Deposit(boxId, parsed, parsed.toDepositMinorUnits(amount));
+    }
+}
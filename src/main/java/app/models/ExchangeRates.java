@@ -0,0 +1,151 @@
+package app.models;
+
+import app.exceptions.arguments.InvalidCurrencyException;
+import app.exceptions.arguments.InvalidExchangeRateException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable matrix of exchange rates indexed by {@link Currencies#ordinal()}.
+ * A new instance is built for every rate change and published as a whole,
+ * so readers never observe a partially updated table.
+ * <p>
+ * The version is assigned when the snapshot is published, so a transfer can
+ * record exactly which table it used.
+ */
+public final class ExchangeRates {
+    private static final String PAIR_SEPARATOR = "_";
+    public static final String DEFAULT_SOURCE = "static";
+
+    private final double[][] rates;
+    private final long version;
+    private final String source;
+    private final Instant publishedAt;
+
+    private ExchangeRates(double[][] rates, long version, String source, Instant publishedAt) {
+        this.rates = rates;
+        this.version = version;
+        this.source = source;
+        this.publishedAt = publishedAt;
+    }
+
+    public static ExchangeRates defaults() {
+        Map<String, Double> pairs = new LinkedHashMap<>();
+        pairs.put("PLN_EUR", 0.22);
+        pairs.put("PLN_GBP", 0.20);
+        pairs.put("EUR_PLN", 4.50);
+        pairs.put("EUR_GBP", 0.84);
+        pairs.put("GBP_PLN", 5.04);
+        pairs.put("GBP_EUR", 1.19);
+        try {
+            return of(pairs, DEFAULT_SOURCE);
+        } catch (InvalidExchangeRateException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Builds a matrix from "FROM_TO" keyed rates. Every ordered pair of
+     * distinct supported currencies must be present and positive.
+     */
+    public static ExchangeRates of(Map<String, Double> pairs) throws InvalidExchangeRateException {
+        return of(pairs, DEFAULT_SOURCE);
+    }
+
+    public static ExchangeRates of(Map<String, Double> pairs, String source) throws InvalidExchangeRateException {
+        if (pairs == null) {
+            throw new InvalidExchangeRateException("Exchange rates cannot be null");
+        }
+        int n = Currencies.count();
+        double[][] matrix = new double[n][n];
+        boolean[][] present = new boolean[n][n];
+        for (Map.Entry<String, Double> entry : pairs.entrySet()) {
+            String key = entry.getKey();
+            int separator = key == null ? -1 : key.indexOf(PAIR_SEPARATOR);
+            Currencies from = separator < 0 ? null : Currencies.fromCode(key.substring(0, separator));
+            Currencies to = separator < 0 ? null : Currencies.fromCode(key.substring(separator + 1));
+            if (from == null || to == null || from == to) {
+                throw new InvalidExchangeRateException("Invalid currency pair: " + key);
+            }
+            Double rate = entry.getValue();
+            if (rate == null || !(rate > 0) || rate.isInfinite()) {
+                throw new InvalidExchangeRateException("Invalid exchange rate for " + key + ": " + rate);
+            }
+            matrix[from.ordinal()][to.ordinal()] = rate;
+            present[from.ordinal()][to.ordinal()] = true;
+        }
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++) {
+                if (from == to) {
+                    matrix[from][to] = 1.0;
+                } else if (!present[from][to]) {
+                    throw new InvalidExchangeRateException("Missing exchange rate for: "
+                            + pairKey(Currencies.fromOrdinal(from), Currencies.fromOrdinal(to)));
+                }
+            }
+        }
+        return new ExchangeRates(matrix, 0L, source, null);
+    }
+
+    public ExchangeRates withVersion(long newVersion, Instant newPublishedAt) {
+        return new ExchangeRates(rates, newVersion, source, newPublishedAt);
+    }
+
+    public boolean hasSameRates(ExchangeRates other) {
+        return other != null && Arrays.deepEquals(rates, other.rates);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    public double rate(Currencies from, Currencies to) {
+        return rates[from.ordinal()][to.ordinal()];
+    }
+
+    public double convert(Currencies from, Currencies to, double amount) {
+        if (from == to) {
+            return amount;
+        }
+        return amount * rates[from.ordinal()][to.ordinal()];
+    }
+
+    public double convert(String fromCurrency, String toCurrency, double amount) throws InvalidCurrencyException {
+        if (fromCurrency.equals(toCurrency)) {
+            return amount;
+        }
+        Currencies from = Currencies.fromCode(fromCurrency);
+        Currencies to = Currencies.fromCode(toCurrency);
+        if (from == null || to == null) {
+            throw new InvalidCurrencyException("Exchange rate not available for: " + fromCurrency + " to " + toCurrency);
+        }
+        return convert(from, to, amount);
+    }
+
+    public Map<String, Double> getRates() {
+        Map<String, Double> pairs = new LinkedHashMap<>();
+        for (int from = 0; from < rates.length; from++) {
+            for (int to = 0; to < rates.length; to++) {
+                if (from != to) {
+                    pairs.put(pairKey(Currencies.fromOrdinal(from), Currencies.fromOrdinal(to)), rates[from][to]);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static String pairKey(Currencies from, Currencies to) {
+        return from.name() + PAIR_SEPARATOR + to.name();
+    }
+}
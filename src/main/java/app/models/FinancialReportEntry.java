@@ -0,0 +1,51 @@
+package app.models;
+
+import java.util.UUID;
+
+/**
+ * Immutable financial report row. Serializes exactly like {@link FinancialReportProjection};
+ * the event id and version are kept for cache bookkeeping only.
+ */
+public final class FinancialReportEntry implements FinancialReportProjection {
+    private final UUID eventId;
+    private final long version;
+    private final String name;
+    private final Double accountBalance;
+    private final String currency;
+
+    public FinancialReportEntry(UUID eventId, long version, String name, Double accountBalance, String currency) {
+        this.eventId = eventId;
+        this.version = version;
+        this.name = name;
+        this.accountBalance = accountBalance;
+        this.currency = currency;
+    }
+
+    public static FinancialReportEntry of(FundraisingEvent event) {
+        return new FinancialReportEntry(event.getUuid(), event.getVersion(),
+                event.getName(), event.getAccountBalance(), event.getCurrency());
+    }
+
+    public UUID eventId() {
+        return eventId;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Double getAccountBalance() {
+        return accountBalance;
+    }
+
+    @Override
+    public String getCurrency() {
+        return currency;
+    }
+}
@@ -1,20 +1,31 @@
 package app.models;
 
-import app.exceptions.arguments.*;
 import app.exceptions.collection_box.*;
 import app.exceptions.fundraising_event.*;
-import app.services.CurrencyConverter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
 @Table(name = "fundraising_events")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = FundraisingEvent.CACHE_REGION)
 public class FundraisingEvent {
+    public static final String CACHE_REGION = "fundraising-events";
 
     @Id
     private UUID uuid;
 
+    @Version
+    private long version;
+
     @Column(nullable = false)
     private String name;
 
@@ -24,13 +35,17 @@ public class FundraisingEvent {
     @Column(nullable = false)
     private Double accountBalance;
 
-    @OneToOne
-    @JoinColumn(name = "collection_box_id", referencedColumnName = "uuid")
+    @Column(name = "last_transfer_rates_version")
+    private Long lastTransferRatesVersion;
+
+    // Owned by CollectionBox.fundraisingEvent; ordered so transfers visit boxes in id order
+    @OneToMany(mappedBy = "fundraisingEvent")
+    @OrderBy("uuid")
     @JsonManagedReference
-    private CollectionBox collectionBox;
+    private List<CollectionBox> collectionBoxes = new ArrayList<>();
 
-    public FundraisingEvent(String name, String currency) {
-        this.uuid = UUID.randomUUID();
+    public FundraisingEvent(UUID uuid, String name, String currency) {
+        this.uuid = uuid;
         this.name = name;
         this.currency = currency;
         this.accountBalance = 0.0;
@@ -42,6 +57,16 @@ public class FundraisingEvent {
         return uuid;
     }
 
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    @JsonIgnore
+    public String getName() {
+        return name;
+    }
+
     public Double getAccountBalance() {
         return accountBalance;
     }
@@ -50,8 +75,12 @@ public class FundraisingEvent {
         return currency;
     }
 
-    public CollectionBox getCollectionBox() {
-        return collectionBox;
+    public Long getLastTransferRatesVersion() {
+        return lastTransferRatesVersion;
+    }
+
+    public List<CollectionBox> getCollectionBoxes() {
+        return Collections.unmodifiableList(collectionBoxes);
     }
 
     public void assignCollectionBox(CollectionBox collectionBox)
@@ -61,39 +90,49 @@ public class FundraisingEvent {
         }
         if(collectionBox.isAssignedToFundraisingEvent())
             throw new CollectionBoxAlreadyAssignedException("Collection box is already assigned to another event");
-        if (this.collectionBox != null) {
-            throw new CollectionBoxAlreadyAssignedException("This event already has a collection box assigned");
-        }
-        this.collectionBox = collectionBox;
-        this.collectionBox.assignFundraisingEvent(this);
+        collectionBox.assignFundraisingEvent(this);
+        this.collectionBoxes.add(collectionBox);
     }
 
-    public void unregisterCollectionBox() throws CollectionBoxException, FundraisingEventException {
-        if (this.collectionBox == null) {
+    /**
+     * Empties and unassigns one of this event's boxes. Returns the ledger entries for the
+     * money taken out of it.
+     */
+    public List<LedgerEntry> unregisterCollectionBox(UUID boxId)
+            throws CollectionBoxException, FundraisingEventException {
+        CollectionBox box = findCollectionBox(boxId);
+        if (box == null) {
             throw new InvalidCollectionBoxException("Collection box is not assigned to this event");
         }
-        this.collectionBox.emptyBoxFully();
-        this.collectionBox.unregisterFundraisingEvent();
-        this.collectionBox = null;
+        List<LedgerEntry> entries = LedgerEntry.emptied(box);
+        box.emptyBoxFully();
+        box.unregisterFundraisingEvent();
+        this.collectionBoxes.remove(box);
+        return entries;
     }
 
-    public void transferMoney()
-            throws ArgumentsException, CollectionBoxException {
-        if(this.collectionBox == null) {
+    /**
+     * Empties and unassigns every box of this event. Returns the ledger entries for the money
+     * taken out of them.
+     */
+    public List<LedgerEntry> unregisterCollectionBoxes()
+            throws CollectionBoxException, FundraisingEventException {
+        if (this.collectionBoxes.isEmpty()) {
             throw new InvalidCollectionBoxException("Collection box is not assigned to this event");
         }
-        if(this.collectionBox.isEmpty()){
-            return;
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (CollectionBox box : List.copyOf(collectionBoxes)) {
+            entries.addAll(unregisterCollectionBox(box.getUuid()));
         }
-        for (Currencies currency : Currencies.values()) {
-            Double amount = collectionBox.getMoneyByCurrency(String.valueOf(currency));
-            if (amount != null) {
-                if (!currency.toString().equals(this.currency)) {
-                    amount = CurrencyConverter.convertCurrency(currency.toString(), this.currency, amount);
-                }
-                accountBalance += amount;
+        return entries;
+    }
+
+    private CollectionBox findCollectionBox(UUID boxId) {
+        for (CollectionBox box : collectionBoxes) {
+            if (box.getUuid().equals(boxId)) {
+                return box;
             }
         }
-        collectionBox.emptyBoxFully();
+        return null;
     }
 }
@@ -0,0 +1,52 @@
+package app.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One balance change in the append-only ledger. {@code minorUnits} is the signed change to
+ * the box balance in {@code currency}; a transfer also credits {@code eventAmount}, already
+ * converted to the event's currency, to {@code eventId}. A transfer sweeping several boxes
+ * converts each currency once, so only the first box's entry for a currency carries the
+ * amount and the others have none.
+ */
+public record LedgerEntry(Type type,
+                          UUID boxId,
+                          UUID eventId,
+                          Currencies currency,
+                          long minorUnits,
+                          Double eventAmount,
+                          Long ratesVersion) {
+
+    public enum Type {
+        DEPOSIT,
+        // Money removed from a box without crediting an event: emptying, unassigning or deleting it
+        EMPTY,
+        TRANSFER
+    }
+
+    public static LedgerEntry deposit(Deposit deposit) {
+        return new LedgerEntry(Type.DEPOSIT, deposit.boxId(), null, deposit.currency(), deposit.minorUnits(), null, null);
+    }
+
+    public static LedgerEntry transfer(UUID boxId, UUID eventId, Currencies currency, long minorUnits,
+                                       Double eventAmount, long ratesVersion) {
+        return new LedgerEntry(Type.TRANSFER, boxId, eventId, currency, -minorUnits, eventAmount, ratesVersion);
+    }
+
+    /**
+     * Entries that take every non-zero balance out of {@code box}; call before emptying it.
+     */
+    public static List<LedgerEntry> emptied(CollectionBox box) {
+        List<LedgerEntry> entries = new ArrayList<>(Currencies.count());
+        for (int i = 0; i < Currencies.count(); i++) {
+            Currencies currency = Currencies.fromOrdinal(i);
+            long minorUnits = box.getMinorUnits(currency);
+            if (minorUnits != 0L) {
+                entries.add(new LedgerEntry(Type.EMPTY, box.getUuid(), null, currency, -minorUnits, null, null));
+            }
+        }
+        return entries;
+    }
+}
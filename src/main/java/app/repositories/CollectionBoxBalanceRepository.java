@@ -0,0 +1,35 @@
+package app.repositories;
+
+import app.exceptions.arguments.InvalidAmountException;
+import app.models.Deposit;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Set-based balance updates that bypass loading {@link app.models.CollectionBox} entities.
+ */
+public interface CollectionBoxBalanceRepository {
+    // Update count of a deposit that was not applied because the balance would overflow
+    int OVERFLOW = -1;
+
+    /**
+     * Atomically adds the deposit to the box balance and returns the new balance in minor
+     * units from the same statement, or an empty result if the box does not exist. Throws
+     * when the deposit would overflow the balance, leaving it unchanged.
+     */
+    OptionalLong addToBalance(Deposit deposit) throws InvalidAmountException;
+
+    /**
+     * Adds every deposit to its box balance using JDBC batches, one batch per currency.
+     * Returns the update count of each deposit in input order; 0 means the box does not exist
+     * and {@link #OVERFLOW} that the deposit would overflow its balance. Neither stops the
+     * other deposits.
+     */
+    int[] addToBalances(List<Deposit> deposits);
+
+    /**
+     * Sum of every box balance in minor units, indexed by currency ordinal.
+     */
+    long[] sumBalances();
+}
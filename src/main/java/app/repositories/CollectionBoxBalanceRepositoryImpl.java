@@ -0,0 +1,159 @@
+package app.repositories;
+
+import app.exceptions.arguments.InvalidAmountException;
+import app.models.CollectionBox;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.models.LedgerEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+
+public class CollectionBoxBalanceRepositoryImpl implements CollectionBoxBalanceRepository {
+    // Matches no row when the deposit would overflow the balance, instead of failing the batch.
+    // Bumping the version makes concurrent load-modify-save writers (empty, transfer) fail their
+    // optimistic check instead of overwriting the deposit.
+    private static final String[] ADD_TO_BALANCE_SQL = new String[Currencies.count()];
+    // Data change delta table: the update and the read of the new value are one statement
+    private static final String[] ADD_TO_BALANCE_RETURNING_SQL = new String[Currencies.count()];
+    private static final String SUM_BALANCES_SQL;
+    private static final ResultSetExtractor<OptionalLong> FIRST_LONG =
+            rs -> rs.next() ? OptionalLong.of(rs.getLong(1)) : OptionalLong.empty();
+
+    static {
+        List<String> sums = new ArrayList<>(Currencies.count());
+        for (int i = 0; i < Currencies.count(); i++) {
+            String column = balanceColumn(Currencies.fromOrdinal(i));
+            sums.add("COALESCE(SUM(" + column + "), 0)");
+            ADD_TO_BALANCE_SQL[i] = "UPDATE collection_boxes SET " + column + " = " + column + " + ?, version = version + 1"
+                    + " WHERE uuid = ? AND " + column + " <= " + Long.MAX_VALUE + " - ?";
+            ADD_TO_BALANCE_RETURNING_SQL[i] = "SELECT " + column + " FROM FINAL TABLE (" + ADD_TO_BALANCE_SQL[i] + ")";
+        }
+        SUM_BALANCES_SQL = "SELECT " + String.join(", ", sums) + " FROM collection_boxes";
+    }
+
+    private final JdbcTemplate jdbc;
+    private final EntityCache entityCache;
+    private final LedgerRepository ledger;
+    private final int batchSize;
+
+    public CollectionBoxBalanceRepositoryImpl(JdbcTemplate jdbc,
+                                              EntityCache entityCache,
+                                              LedgerRepository ledger,
+                                              @Value("${charity.deposits.jdbc-batch-size:500}") int batchSize) {
+        this.jdbc = jdbc;
+        this.entityCache = entityCache;
+        this.ledger = ledger;
+        this.batchSize = batchSize;
+    }
+
+    static String balanceColumn(Currencies currency) {
+        return "balance_" + currency.name().toLowerCase();
+    }
+
+    @Override
+    public OptionalLong addToBalance(Deposit deposit) throws InvalidAmountException {
+        OptionalLong balance = jdbc.query(ADD_TO_BALANCE_RETURNING_SQL[deposit.currency().ordinal()], FIRST_LONG,
+                deposit.minorUnits(), deposit.boxId(), deposit.minorUnits());
+        if (balance.isEmpty() && exists(deposit.boxId())) {
+            throw new InvalidAmountException(deposit.currency().toMajorUnits(deposit.minorUnits()));
+        }
+        if (balance.isPresent()) {
+            // The update holds the box row lock, so the entry is appended in commit order
+            ledger.append(List.of(LedgerEntry.deposit(deposit)));
+            entityCache.evictAfterWrite(CollectionBox.class, List.of(deposit.boxId()));
+        }
+        return balance;
+    }
+
+    @Override
+    public int[] addToBalances(List<Deposit> deposits) {
+        int[] counts = new int[deposits.size()];
+        List<List<Integer>> byCurrency = new ArrayList<>(Currencies.count());
+        for (int i = 0; i < Currencies.count(); i++) {
+            byCurrency.add(new ArrayList<>());
+        }
+        for (int i = 0; i < deposits.size(); i++) {
+            byCurrency.get(deposits.get(i).currency().ordinal()).add(i);
+        }
+        for (int c = 0; c < Currencies.count(); c++) {
+            List<Integer> indexes = byCurrency.get(c);
+            if (indexes.isEmpty()) {
+                continue;
+            }
+            int[][] batchCounts = jdbc.batchUpdate(ADD_TO_BALANCE_SQL[c], indexes, batchSize, (ps, index) -> {
+                Deposit deposit = deposits.get(index);
+                ps.setLong(1, deposit.minorUnits());
+                ps.setObject(2, deposit.boxId());
+                ps.setLong(3, deposit.minorUnits());
+            });
+            int position = 0;
+            for (int[] batch : batchCounts) {
+                for (int count : batch) {
+                    // Drivers may report SUCCESS_NO_INFO for batched statements
+                    counts[indexes.get(position++)] = count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                }
+            }
+        }
+        markOverflows(deposits, counts);
+        List<UUID> updated = new ArrayList<>();
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                updated.add(deposits.get(i).boxId());
+                entries.add(LedgerEntry.deposit(deposits.get(i)));
+            }
+        }
+        ledger.append(entries);
+        entityCache.evictAfterWrite(CollectionBox.class, updated);
+        return counts;
+    }
+
+    private boolean exists(UUID boxId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM collection_boxes WHERE uuid = ?", Integer.class, boxId) > 0;
+    }
+
+    // A deposit that matched no row either has no box or would overflow an existing one
+    private void markOverflows(List<Deposit> deposits, int[] counts) {
+        List<UUID> unmatched = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                unmatched.add(deposits.get(i).boxId());
+            }
+        }
+        if (unmatched.isEmpty()) {
+            return;
+        }
+        Set<UUID> existing = new HashSet<>(jdbc.queryForList(
+                "SELECT uuid FROM collection_boxes WHERE uuid IN ("
+                        + String.join(", ", Collections.nCopies(unmatched.size(), "?")) + ")",
+                UUID.class, unmatched.toArray()));
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0 && existing.contains(deposits.get(i).boxId())) {
+                counts[i] = OVERFLOW;
+            }
+        }
+    }
+
+    @Override
+    public long[] sumBalances() {
+        return jdbc.query(SUM_BALANCES_SQL, rs -> {
+            long[] sums = new long[Currencies.count()];
+            if (rs.next()) {
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] = rs.getLong(i + 1);
+                }
+            }
+            return sums;
+        });
+    }
+}
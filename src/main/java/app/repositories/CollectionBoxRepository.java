@@ -1,12 +1,40 @@
 package app.repositories;
 
+import app.dto.CollectionBoxResponse;
 import app.models.CollectionBox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface CollectionBoxRepository
-        extends JpaRepository<CollectionBox, UUID> {
-}
\ No newline at end of file
+        extends JpaRepository<CollectionBox, UUID>, CollectionBoxBalanceRepository {
+
+    // Listing rows computed from the box's own columns; the event is never joined
+    String RESPONSE_QUERY = "SELECT new app.dto.CollectionBoxResponse(b.uuid, "
+            + "CASE WHEN b.balancePln = 0 AND b.balanceEur = 0 AND b.balanceGbp = 0 THEN true ELSE false END, "
+            + "CASE WHEN b.fundraisingEvent IS NULL THEN false ELSE true END) "
+            + "FROM CollectionBox b";
+
+    // Keyset pagination: first page, then every page after the last id seen
+    @Query(RESPONSE_QUERY + " ORDER BY b.uuid")
+    List<CollectionBoxResponse> findResponses(Limit limit);
+
+    @Query(RESPONSE_QUERY + " WHERE b.uuid > :after ORDER BY b.uuid")
+    List<CollectionBoxResponse> findResponsesAfter(@Param("after") UUID after, Limit limit);
+
+    // SELECT ... FOR UPDATE, used by the pessimistic concurrency strategy
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    Optional<CollectionBox> findWithLockByUuid(UUID uuid);
+}
@@ -0,0 +1,33 @@
+package app.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * How far each deposit journal has been applied. The position is saved in the transaction
+ * that applies the deposits up to it, so a deposit is either applied and covered by the
+ * position, or neither, and a replay never applies it twice.
+ */
+@Repository
+public class DepositJournalRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public DepositJournalRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // 0 for a journal that has never been applied
+    public long findAppliedSequence(UUID journalId) {
+        List<Long> sequences = jdbc.queryForList(
+                "SELECT applied_sequence FROM deposit_journals WHERE journal_id = ?", Long.class, journalId);
+        return sequences.isEmpty() ? 0L : sequences.get(0);
+    }
+
+    public void saveAppliedSequence(UUID journalId, long sequence) {
+        jdbc.update("MERGE INTO deposit_journals KEY (journal_id) VALUES (?, ?)", journalId, sequence);
+    }
+}
@@ -0,0 +1,68 @@
+package app.repositories;
+
+import app.dto.CacheRegionStats;
+import app.models.CollectionBox;
+import app.models.FundraisingEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Second-level cache access for writes that bypass Hibernate (JDBC deposits, bulk transfers).
+ * Entries are evicted right away and again when the transaction completes: a reader that
+ * loaded the old row between the two would otherwise put it back for good.
+ */
+@Component
+public class EntityCache {
+    private static final List<String> REGIONS = List.of(CollectionBox.CACHE_REGION, FundraisingEvent.CACHE_REGION);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EntityCache(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictAfterWrite(Class<?> entityType, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<UUID> evicted = List.copyOf(ids);
+        evict(entityType, evicted);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(entityType, evicted);
+                }
+            });
+        }
+    }
+
+    public List<CacheRegionStats> getStatistics() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        List<CacheRegionStats> stats = new ArrayList<>(REGIONS.size());
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStats = sessionFactory.getStatistics().getDomainDataRegionStatistics(region);
+            if (regionStats != null) {
+                stats.add(new CacheRegionStats(region, regionStats.getHitCount(), regionStats.getMissCount(),
+                        regionStats.getPutCount()));
+            }
+        }
+        return stats;
+    }
+
+    private void evict(Class<?> entityType, List<UUID> ids) {
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        for (UUID id : ids) {
+            cache.evict(entityType, id);
+        }
+    }
+}
@@ -1,18 +1,81 @@
 package app.repositories;
 
+import app.dto.FundraisingEventBoxRow;
+import app.dto.FundraisingEventSummary;
+import app.models.FinancialReportEntry;
 import app.models.FinancialReportProjection;
 import app.models.FundraisingEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface FundraisingEventRepository extends JpaRepository<FundraisingEvent, UUID> {
+public interface FundraisingEventRepository
+        extends JpaRepository<FundraisingEvent, UUID>, FundraisingEventTransferRepository {
     // SELECT e.name AS name,
     //        e.accountBalance AS accountBalance,
     //        e.currency AS currency
     //   FROM FundraisingEvent e
     List<FinancialReportProjection> findAllProjectedBy();
+
+    // Same projection read through a cursor; must be consumed (and closed) inside a transaction
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    Stream<FinancialReportProjection> streamAllProjectedBy();
+
+    // Full report with the bookkeeping the in-memory report cache needs
+    @Query("SELECT new app.models.FinancialReportEntry(e.uuid, e.version, e.name, e.accountBalance, e.currency) "
+            + "FROM FundraisingEvent e")
+    List<FinancialReportEntry> findAllReportEntries();
+
+    @Query("SELECT new app.models.FinancialReportEntry(e.uuid, e.version, e.name, e.accountBalance, e.currency) "
+            + "FROM FundraisingEvent e WHERE e.uuid IN :ids")
+    List<FinancialReportEntry> findReportEntriesByUuidIn(@Param("ids") Collection<UUID> ids);
+
+    // Events and their boxes in one LEFT JOIN, grouped into listing rows: no entities, no per-row loads.
+    // Balances never go below zero, so a box total of zero means every box is empty.
+    String SUMMARY_QUERY = "SELECT new app.dto.FundraisingEventSummary("
+            + "e.uuid, e.name, e.currency, e.accountBalance, e.lastTransferRatesVersion, COUNT(b.uuid), "
+            + "CASE WHEN COUNT(b.uuid) = 0 THEN NULL "
+            + "WHEN MAX(b.balancePln) = 0 AND MAX(b.balanceEur) = 0 AND MAX(b.balanceGbp) = 0 THEN true "
+            + "ELSE false END) "
+            + "FROM FundraisingEvent e LEFT JOIN e.collectionBoxes b";
+    String SUMMARY_GROUP_BY = " GROUP BY e.uuid, e.name, e.currency, e.accountBalance, e.lastTransferRatesVersion";
+
+    // Keyset pagination: first page, then every page after the last id seen
+    @Query(SUMMARY_QUERY + SUMMARY_GROUP_BY + " ORDER BY e.uuid")
+    List<FundraisingEventSummary> findSummaries(Limit limit);
+
+    @Query(SUMMARY_QUERY + " WHERE e.uuid > :after" + SUMMARY_GROUP_BY + " ORDER BY e.uuid")
+    List<FundraisingEventSummary> findSummariesAfter(@Param("after") UUID after, Limit limit);
+
+    // One row per box, or a single row with a null box when none is assigned
+    @Query("SELECT new app.dto.FundraisingEventBoxRow("
+            + "e.uuid, e.name, e.currency, e.accountBalance, e.lastTransferRatesVersion, "
+            + "b.uuid, b.balancePln, b.balanceEur, b.balanceGbp) "
+            + "FROM FundraisingEvent e LEFT JOIN e.collectionBoxes b WHERE e.uuid = :id ORDER BY b.uuid")
+    List<FundraisingEventBoxRow> findResponseRowsByUuid(@Param("id") UUID id);
+
+    // SELECT ... FOR UPDATE, used by the pessimistic concurrency strategy
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    Optional<FundraisingEvent> findWithLockByUuid(UUID uuid);
+
+    // Reads the boxes' foreign key column; the event row is not touched
+    @Query("SELECT b.uuid FROM CollectionBox b WHERE b.fundraisingEvent.uuid = :eventId ORDER BY b.uuid")
+    List<UUID> findCollectionBoxIdsByEventId(@Param("eventId") UUID eventId);
 }
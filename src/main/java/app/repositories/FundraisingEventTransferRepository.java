@@ -0,0 +1,38 @@
+package app.repositories;
+
+import app.dto.TransferFailure;
+import app.models.Currencies;
+import app.models.ExchangeRates;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Set-based money transfers that bypass loading {@link app.models.FundraisingEvent} entities.
+ */
+public interface FundraisingEventTransferRepository {
+
+    /**
+     * Keyset page of event ids in ascending order; {@code after} is null for the first page.
+     */
+    List<UUID> findEventIdsAfter(UUID after, int limit);
+
+    /**
+     * Transfers every box of the given events into their account balances with a handful of
+     * statements, using {@code rates} for every conversion. An event's boxes are summed per
+     * currency and each total is converted once. Must run inside a transaction: the
+     * boxes and events are locked first, so concurrent deposits wait instead of being lost.
+     */
+    ChunkResult transferChunk(List<UUID> eventIds, ExchangeRates rates);
+
+    /**
+     * {@code sweptMinorUnits} is the money taken out of the boxes of the transferred events,
+     * in minor units by currency ordinal.
+     */
+    record ChunkResult(List<UUID> transferred, int skipped, List<TransferFailure> failures, long[] sweptMinorUnits) {
+
+        public ChunkResult(List<UUID> transferred, int skipped, List<TransferFailure> failures) {
+            this(transferred, skipped, failures, new long[Currencies.count()]);
+        }
+    }
+}
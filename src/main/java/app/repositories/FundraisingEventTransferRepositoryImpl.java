@@ -0,0 +1,219 @@
+package app.repositories;
+
+import app.dto.TransferFailure;
+import app.exceptions.arguments.InvalidCurrencyException;
+import app.exceptions.fundraising_event.FundraisingEventDoesntExistException;
+import app.models.CollectionBox;
+import app.models.Currencies;
+import app.models.ExchangeRates;
+import app.models.FundraisingEvent;
+import app.models.LedgerEntry;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static app.repositories.CollectionBoxBalanceRepositoryImpl.balanceColumn;
+
+public class FundraisingEventTransferRepositoryImpl implements FundraisingEventTransferRepository {
+    private static final String NOT_ASSIGNED = "Collection box is not assigned to this event";
+    private static final String TOO_LARGE = "Balances of the event's collection boxes are too large to transfer";
+
+    // SUM(b.balance_pln) AS balance_pln, ...: an event's boxes added up per currency
+    private static final String BOX_TOTALS;
+    private static final String BALANCES;
+    private static final String ZERO_BALANCES;
+    // account_balance + pln / 100 * rate(PLN, target) + eur / 100 * rate(EUR, target) + ...
+    // over the totals of all the event's boxes. Same additions in the same order as the event's
+    // TRANSFER entries, so folding the ledger reproduces the balance bit for bit
+    private static final String CONVERTED_SUM;
+    // One TRANSFER ledger entry per box of an event for a source currency. The first box (by id)
+    // carries the converted total, the same term as in CONVERTED_SUM; the others carry none
+    private static final String[] LEDGER_TRANSFER_SQL = new String[Currencies.count()];
+
+    static {
+        List<String> totals = new ArrayList<>();
+        List<String> balances = new ArrayList<>();
+        List<String> zero = new ArrayList<>();
+        StringBuilder sum = new StringBuilder("e.account_balance");
+        for (int from = 0; from < Currencies.count(); from++) {
+            Currencies source = Currencies.fromOrdinal(from);
+            String column = balanceColumn(source);
+            totals.add("SUM(b." + column + ") AS " + column);
+            balances.add("b." + column);
+            zero.add(column + " = 0");
+            sum.append(" + ").append(convertedTerm("s." + column));
+            LEDGER_TRANSFER_SQL[from] = LedgerRepository.INSERT
+                    + " SELECT '" + LedgerEntry.Type.TRANSFER.name() + "', b.uuid, e.uuid, '" + source.name() + "',"
+                    + " -b." + column + ","
+                    + " CASE WHEN ROW_NUMBER() OVER (PARTITION BY e.uuid ORDER BY b.uuid) = 1"
+                    + " THEN " + convertedTerm("SUM(b." + column + ") OVER (PARTITION BY e.uuid)") + " END, ?"
+                    + " FROM collection_boxes b JOIN fundraising_events e ON e.uuid = b.fundraising_event_id"
+                    + " WHERE b." + column + " <> 0 AND e.uuid IN ";
+        }
+        BOX_TOTALS = String.join(", ", totals);
+        BALANCES = String.join(", ", balances);
+        ZERO_BALANCES = String.join(", ", zero);
+        CONVERTED_SUM = sum.toString();
+    }
+
+    // Binds the source's minor units per major unit, then the rate to each target currency (see conversionArgs)
+    private static String convertedTerm(String balance) {
+        StringBuilder term = new StringBuilder("CAST(").append(balance)
+                .append(" AS DOUBLE PRECISION) / CAST(? AS DOUBLE PRECISION) * CASE e.currency");
+        for (int to = 0; to < Currencies.count(); to++) {
+            term.append(" WHEN '").append(Currencies.fromOrdinal(to).name()).append("' THEN CAST(? AS DOUBLE PRECISION)");
+        }
+        return term.append(" END").toString();
+    }
+
+    private static void addConversionArgs(List<Object> args, Currencies source, ExchangeRates rates) {
+        args.add((double) source.getMinorUnitsPerMajor());
+        for (int to = 0; to < Currencies.count(); to++) {
+            Currencies target = Currencies.fromOrdinal(to);
+            // convert() returns the amount unchanged for the same currency; x * 1.0 == x
+            args.add(source == target ? 1.0 : rates.rate(source, target));
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final EntityCache entityCache;
+
+    public FundraisingEventTransferRepositoryImpl(JdbcTemplate jdbc, EntityCache entityCache) {
+        this.jdbc = jdbc;
+        this.entityCache = entityCache;
+    }
+
+    @Override
+    public List<UUID> findEventIdsAfter(UUID after, int limit) {
+        if (after == null) {
+            return jdbc.queryForList("SELECT uuid FROM fundraising_events ORDER BY uuid LIMIT ?", UUID.class, limit);
+        }
+        return jdbc.queryForList("SELECT uuid FROM fundraising_events WHERE uuid > ? ORDER BY uuid LIMIT ?",
+                UUID.class, after, limit);
+    }
+
+    @Override
+    public ChunkResult transferChunk(List<UUID> eventIds, ExchangeRates rates) {
+        String ids = placeholders(eventIds.size());
+        Object[] idArgs = eventIds.toArray();
+
+        // Boxes before events: the same lock order as the single-event transfer. The box owns
+        // the assignment, so once its row is locked the event-to-box mapping cannot change.
+        Set<UUID> assigned = new HashSet<>();
+        Map<UUID, List<UUID>> nonEmptyBoxes = new HashMap<>();
+        Map<UUID, long[]> boxTotals = new HashMap<>();
+        Set<UUID> overflowed = new HashSet<>();
+        jdbc.query("SELECT b.uuid, b.fundraising_event_id, " + BALANCES + " FROM collection_boxes b"
+                        + " WHERE b.fundraising_event_id IN (" + ids + ")"
+                        + " ORDER BY b.uuid FOR UPDATE",
+                rs -> {
+                    UUID eventId = rs.getObject(2, UUID.class);
+                    assigned.add(eventId);
+                    long[] totals = boxTotals.computeIfAbsent(eventId, id -> new long[Currencies.count()]);
+                    boolean empty = true;
+                    for (int i = 0; i < totals.length; i++) {
+                        long minorUnits = rs.getLong(3 + i);
+                        try {
+                            totals[i] = Math.addExact(totals[i], minorUnits);
+                        } catch (ArithmeticException e) {
+                            overflowed.add(eventId);
+                        }
+                        empty &= minorUnits == 0L;
+                    }
+                    if (!empty) {
+                        nonEmptyBoxes.computeIfAbsent(eventId, id -> new ArrayList<>()).add(rs.getObject(1, UUID.class));
+                    }
+                }, idArgs);
+
+        Map<UUID, String> currencies = new HashMap<>();
+        jdbc.query("SELECT uuid, currency FROM fundraising_events"
+                        + " WHERE uuid IN (" + ids + ") ORDER BY uuid FOR UPDATE",
+                rs -> {
+                    currencies.put(rs.getObject(1, UUID.class), rs.getString(2));
+                }, idArgs);
+
+        List<UUID> transferred = new ArrayList<>();
+        List<UUID> boxesToEmpty = new ArrayList<>();
+        List<TransferFailure> failures = new ArrayList<>();
+        long[] swept = new long[Currencies.count()];
+        int skipped = 0;
+        for (UUID eventId : eventIds) {
+            String currency = currencies.get(eventId);
+            if (currency == null) {
+                failures.add(new TransferFailure(eventId, new FundraisingEventDoesntExistException().getMessage()));
+                continue;
+            }
+            if (!assigned.contains(eventId)) {
+                failures.add(new TransferFailure(eventId, NOT_ASSIGNED));
+                continue;
+            }
+            List<UUID> boxes = nonEmptyBoxes.get(eventId);
+            if (boxes == null) {
+                skipped++;
+                continue;
+            }
+            if (Currencies.fromCode(currency) == null) {
+                failures.add(new TransferFailure(eventId, new InvalidCurrencyException(currency).getMessage()));
+                continue;
+            }
+            if (overflowed.contains(eventId)) {
+                // The per-currency total would not fit the ledger entry or the swept counters
+                failures.add(new TransferFailure(eventId, TOO_LARGE));
+                continue;
+            }
+            transferred.add(eventId);
+            boxesToEmpty.addAll(boxes);
+            long[] totals = boxTotals.get(eventId);
+            for (int i = 0; i < swept.length; i++) {
+                swept[i] += totals[i];
+            }
+        }
+        if (transferred.isEmpty()) {
+            return new ChunkResult(transferred, skipped, failures, swept);
+        }
+
+        // Ledger first, while the boxes still hold the money. Currency by currency, so each event's
+        // entries have the same order as the additions in CONVERTED_SUM
+        for (int from = 0; from < Currencies.count(); from++) {
+            List<Object> ledgerArgs = new ArrayList<>();
+            addConversionArgs(ledgerArgs, Currencies.fromOrdinal(from), rates);
+            ledgerArgs.add(rates.getVersion());
+            ledgerArgs.addAll(transferred);
+            jdbc.update(LEDGER_TRANSFER_SQL[from] + "(" + placeholders(transferred.size()) + ")"
+                    + " ORDER BY e.uuid, b.uuid", ledgerArgs.toArray());
+        }
+
+        List<Object> args = new ArrayList<>(transferred);
+        for (int from = 0; from < Currencies.count(); from++) {
+            addConversionArgs(args, Currencies.fromOrdinal(from), rates);
+        }
+        args.add(rates.getVersion());
+        jdbc.update("MERGE INTO fundraising_events e"
+                + " USING (SELECT b.fundraising_event_id AS event_id, " + BOX_TOTALS + " FROM collection_boxes b"
+                + " WHERE b.fundraising_event_id IN (" + placeholders(transferred.size()) + ")"
+                + " GROUP BY b.fundraising_event_id) s"
+                + " ON e.uuid = s.event_id"
+                + " WHEN MATCHED THEN UPDATE SET account_balance = " + CONVERTED_SUM + ","
+                + " last_transfer_rates_version = ?, version = e.version + 1",
+                args.toArray());
+
+        jdbc.update("UPDATE collection_boxes SET " + ZERO_BALANCES + ", version = version + 1"
+                + " WHERE uuid IN (" + placeholders(boxesToEmpty.size()) + ")", boxesToEmpty.toArray());
+
+        entityCache.evictAfterWrite(FundraisingEvent.class, transferred);
+        entityCache.evictAfterWrite(CollectionBox.class, boxesToEmpty);
+
+        return new ChunkResult(transferred, skipped, failures, swept);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
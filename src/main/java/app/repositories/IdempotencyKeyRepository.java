@@ -0,0 +1,56 @@
+package app.repositories;
+
+import app.dto.IdempotentResponse;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Durable copy of the idempotent responses, so a retry is still recognized after a restart
+ * or when it reaches another instance.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // Rows created before notBefore have expired, even if they have not been purged yet
+    public Optional<IdempotentResponse> find(String key, Instant notBefore) {
+        List<IdempotentResponse> rows = jdbc.query(
+                "SELECT fingerprint, status, content_type, body, created_at FROM idempotency_keys"
+                        + " WHERE idempotency_key = ? AND created_at >= ?",
+                (rs, row) -> new IdempotentResponse(rs.getString(1), rs.getInt(2), rs.getString(3),
+                        rs.getBytes(4), rs.getTimestamp(5).toInstant()),
+                key, Timestamp.from(notBefore));
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Stores the response unless the key is already taken. Returns false when another
+     * request stored it first; that response is the one every retry gets.
+     */
+    public boolean insert(String key, IdempotentResponse response) {
+        try {
+            jdbc.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, content_type, body, created_at)"
+                            + " VALUES (?, ?, ?, ?, ?, ?)",
+                    key, response.fingerprint(), response.status(), response.contentType(), response.body(),
+                    Timestamp.from(response.createdAt()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public int deleteCreatedBefore(Instant before) {
+        return jdbc.update("DELETE FROM idempotency_keys WHERE created_at < ?", Timestamp.from(before));
+    }
+}
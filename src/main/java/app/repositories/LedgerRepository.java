@@ -0,0 +1,261 @@
+package app.repositories;
+
+import app.dto.LedgerMismatch;
+import app.models.Currencies;
+import app.models.LedgerEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static app.repositories.CollectionBoxBalanceRepositoryImpl.balanceColumn;
+
+/**
+ * The append-only balance ledger and its snapshots. The balance columns on the live tables
+ * are a projection of the ledger: the snapshot of a box or event plus its later entries,
+ * applied in sequence order, give the same balance.
+ *
+ * <p>Entries must be appended in the transaction that changes the balance, after the changed
+ * rows are locked. Entries of one box or event then commit in sequence order, so the highest
+ * sequence visible for it is a safe snapshot point even while other writes are in flight.
+ */
+@Repository
+public class LedgerRepository {
+    static final String INSERT = "INSERT INTO ledger_entries"
+            + " (entry_type, box_id, event_id, currency, minor_units, event_amount, rates_version)";
+
+    private static final String INSERT_VALUES = INSERT + " VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String LIVE_BALANCES;
+    private static final String SNAPSHOT_BALANCES;
+    private static final String MERGE_BOX_SNAPSHOT;
+
+    static {
+        List<String> live = new ArrayList<>();
+        List<String> snapshot = new ArrayList<>();
+        for (int i = 0; i < Currencies.count(); i++) {
+            String column = balanceColumn(Currencies.fromOrdinal(i));
+            live.add("b." + column);
+            snapshot.add("s." + column);
+        }
+        LIVE_BALANCES = String.join(", ", live);
+        SNAPSHOT_BALANCES = String.join(", ", snapshot);
+        MERGE_BOX_SNAPSHOT = "MERGE INTO box_snapshots KEY (box_id) VALUES (?, ?, "
+                + String.join(", ", Collections.nCopies(Currencies.count(), "?")) + ")";
+    }
+
+    private final JdbcTemplate jdbc;
+    private final int batchSize;
+
+    public LedgerRepository(JdbcTemplate jdbc,
+                            @Value("${charity.deposits.jdbc-batch-size:500}") int batchSize) {
+        this.jdbc = jdbc;
+        this.batchSize = batchSize;
+    }
+
+    public void append(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT_VALUES, entries, batchSize, (ps, entry) -> {
+            ps.setString(1, entry.type().name());
+            ps.setObject(2, entry.boxId());
+            ps.setObject(3, entry.eventId());
+            ps.setString(4, entry.currency().name());
+            ps.setLong(5, entry.minorUnits());
+            ps.setObject(6, entry.eventAmount());
+            ps.setObject(7, entry.ratesVersion());
+        });
+    }
+
+    /**
+     * Folds the entries after each box's snapshot into a new snapshot. Returns the number of
+     * boxes whose snapshot moved forward.
+     */
+    public int snapshotBoxes() {
+        List<Object[]> snapshots = new ArrayList<>();
+        BoxReplay replay = new BoxReplay();
+        jdbc.query("SELECT l.box_id, l.sequence, l.currency, l.minor_units, " + SNAPSHOT_BALANCES
+                        + " FROM ledger_entries l LEFT JOIN box_snapshots s ON s.box_id = l.box_id"
+                        + " WHERE l.sequence > COALESCE(s.sequence, 0)"
+                        + " ORDER BY l.box_id, l.sequence",
+                rs -> {
+                    UUID boxId = rs.getObject(1, UUID.class);
+                    if (!boxId.equals(replay.boxId)) {
+                        replay.addSnapshotTo(snapshots);
+                        replay.boxId = boxId;
+                        for (int i = 0; i < replay.balances.length; i++) {
+                            // A missing snapshot reads as 0: every box starts empty
+                            replay.balances[i] = rs.getLong(5 + i);
+                        }
+                    }
+                    replay.sequence = rs.getLong(2);
+                    replay.balances[Currencies.valueOf(rs.getString(3)).ordinal()] += rs.getLong(4);
+                });
+        replay.addSnapshotTo(snapshots);
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        jdbc.batchUpdate(MERGE_BOX_SNAPSHOT, snapshots);
+        return snapshots.size();
+    }
+
+    /**
+     * Folds the transfers after each event's snapshot into a new snapshot, adding the amounts
+     * in sequence order exactly as the transfer did. Returns the number of events
+     * whose snapshot moved forward.
+     */
+    public int snapshotEvents() {
+        List<Object[]> snapshots = new ArrayList<>();
+        EventReplay replay = new EventReplay();
+        jdbc.query("SELECT l.event_id, l.sequence, l.event_amount, s.account_balance"
+                        + " FROM ledger_entries l LEFT JOIN event_snapshots s ON s.event_id = l.event_id"
+                        + " WHERE l.event_id IS NOT NULL AND l.sequence > COALESCE(s.sequence, 0)"
+                        + " ORDER BY l.event_id, l.sequence",
+                rs -> {
+                    UUID eventId = rs.getObject(1, UUID.class);
+                    if (!eventId.equals(replay.eventId)) {
+                        replay.addSnapshotTo(snapshots);
+                        replay.eventId = eventId;
+                        replay.balance = rs.getDouble(4);
+                    }
+                    replay.sequence = rs.getLong(2);
+                    double amount = rs.getDouble(3);
+                    // Null on every box but the first of a multi-box transfer
+                    if (!rs.wasNull()) {
+                        replay.balance += amount;
+                    }
+                });
+        replay.addSnapshotTo(snapshots);
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        jdbc.batchUpdate("MERGE INTO event_snapshots KEY (event_id) VALUES (?, ?, ?)", snapshots);
+        return snapshots.size();
+    }
+
+    /**
+     * Rebuilds every live box from its snapshot and ledger tail and adds each balance that
+     * differs from the stored one to {@code mismatches}. One plain read: no rows are locked.
+     * Returns the number of boxes checked.
+     */
+    public int reconcileBoxes(List<LedgerMismatch> mismatches) {
+        int currencies = Currencies.count();
+        BoxReplay replay = new BoxReplay();
+        long[] live = new long[currencies];
+        int[] boxes = {0};
+        jdbc.query("SELECT b.uuid, " + LIVE_BALANCES + ", " + SNAPSHOT_BALANCES + ", l.currency, l.minor_units"
+                        + " FROM collection_boxes b"
+                        + " LEFT JOIN box_snapshots s ON s.box_id = b.uuid"
+                        + " LEFT JOIN ledger_entries l ON l.box_id = b.uuid AND l.sequence > COALESCE(s.sequence, 0)"
+                        + " ORDER BY b.uuid, l.sequence",
+                rs -> {
+                    UUID boxId = rs.getObject(1, UUID.class);
+                    if (!boxId.equals(replay.boxId)) {
+                        replay.compareTo(live, mismatches);
+                        replay.boxId = boxId;
+                        for (int i = 0; i < currencies; i++) {
+                            live[i] = rs.getLong(2 + i);
+                            replay.balances[i] = rs.getLong(2 + currencies + i);
+                        }
+                        boxes[0]++;
+                    }
+                    String currency = rs.getString(2 + 2 * currencies);
+                    if (currency != null) {
+                        replay.balances[Currencies.valueOf(currency).ordinal()] += rs.getLong(3 + 2 * currencies);
+                    }
+                });
+        replay.compareTo(live, mismatches);
+        return boxes[0];
+    }
+
+    /**
+     * Rebuilds every live event's account balance from its snapshot and ledger tail and adds
+     * each one that differs from the stored balance to {@code mismatches}. Returns the number
+     * of events checked.
+     */
+    public int reconcileEvents(List<LedgerMismatch> mismatches) {
+        EventReplay replay = new EventReplay();
+        int[] events = {0};
+        jdbc.query("SELECT e.uuid, e.currency, e.account_balance, s.account_balance, l.event_amount"
+                        + " FROM fundraising_events e"
+                        + " LEFT JOIN event_snapshots s ON s.event_id = e.uuid"
+                        + " LEFT JOIN ledger_entries l ON l.event_id = e.uuid AND l.sequence > COALESCE(s.sequence, 0)"
+                        + " ORDER BY e.uuid, l.sequence",
+                rs -> {
+                    UUID eventId = rs.getObject(1, UUID.class);
+                    if (!eventId.equals(replay.eventId)) {
+                        replay.compareTo(mismatches);
+                        replay.eventId = eventId;
+                        replay.currency = rs.getString(2);
+                        replay.live = rs.getDouble(3);
+                        replay.balance = rs.getDouble(4);
+                        events[0]++;
+                    }
+                    double amount = rs.getDouble(5);
+                    if (!rs.wasNull()) {
+                        replay.balance += amount;
+                    }
+                });
+        replay.compareTo(mismatches);
+        return events[0];
+    }
+
+    // Running fold of one box's entries, in sequence order
+    private static final class BoxReplay {
+        UUID boxId;
+        long sequence;
+        final long[] balances = new long[Currencies.count()];
+
+        void addSnapshotTo(List<Object[]> snapshots) {
+            if (boxId == null) {
+                return;
+            }
+            Object[] row = new Object[2 + balances.length];
+            row[0] = boxId;
+            row[1] = sequence;
+            for (int i = 0; i < balances.length; i++) {
+                row[2 + i] = balances[i];
+            }
+            snapshots.add(row);
+        }
+
+        void compareTo(long[] live, List<LedgerMismatch> mismatches) {
+            if (boxId == null) {
+                return;
+            }
+            for (int i = 0; i < balances.length; i++) {
+                if (balances[i] != live[i]) {
+                    Currencies currency = Currencies.fromOrdinal(i);
+                    mismatches.add(new LedgerMismatch(LedgerMismatch.BOX, boxId, currency.name(),
+                            currency.toMajorUnits(balances[i]), currency.toMajorUnits(live[i])));
+                }
+            }
+        }
+    }
+
+    // Running fold of one event's transfers, in sequence order
+    private static final class EventReplay {
+        UUID eventId;
+        String currency;
+        long sequence;
+        double balance;
+        double live;
+
+        void addSnapshotTo(List<Object[]> snapshots) {
+            if (eventId != null) {
+                snapshots.add(new Object[]{eventId, sequence, balance});
+            }
+        }
+
+        void compareTo(List<LedgerMismatch> mismatches) {
+            // Exact comparison: the fold repeats the additions of the transfer in the same order
+            if (eventId != null && Double.compare(balance, live) != 0) {
+                mismatches.add(new LedgerMismatch(LedgerMismatch.EVENT, eventId, currency, balance, live));
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package app.services;
+
+import app.dto.TransferAllResponse;
+import app.dto.TransferFailure;
+import app.models.ExchangeRates;
+import app.repositories.FundraisingEventRepository;
+import app.repositories.FundraisingEventTransferRepository.ChunkResult;
+import app.services.report.FinancialReportCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Transfers the boxes of many events at once. Events are split into chunks, each chunk is
+ * settled with set-based SQL in its own transaction, and chunks run in parallel. A failing
+ * chunk is reported per event and does not roll back the others.
+ */
+@Timed("charity.service")
+public class BulkTransferService {
+    private static final Logger log = LoggerFactory.getLogger(BulkTransferService.class);
+
+    private final FundraisingEventRepository repo;
+    private final TransactionOperations transactions;
+    private final FinancialReportCache reportCache;
+    private final CollectionBoxTotals boxTotals;
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    public BulkTransferService(FundraisingEventRepository repo,
+                               TransactionOperations transactions,
+                               FinancialReportCache reportCache,
+                               CollectionBoxTotals boxTotals,
+                               ExecutorService executor,
+                               int chunkSize) {
+        this.repo         = repo;
+        this.transactions = transactions;
+        this.reportCache  = reportCache;
+        this.boxTotals    = boxTotals;
+        this.executor     = executor;
+        this.chunkSize    = chunkSize;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Transfers the given events, or every event when {@code eventIds} is null or empty.
+     */
+    public TransferAllResponse transferAll(List<UUID> eventIds) {
+        long started = System.nanoTime();
+        // One rate table for the whole run, like a single transfer
+        ExchangeRates rates = CurrencyConverter.getExchangeRates();
+
+        List<List<UUID>> chunks = eventIds == null || eventIds.isEmpty()
+                ? allEventChunks()
+                : chunks(new ArrayList<>(new LinkedHashSet<>(eventIds)));
+        List<CompletableFuture<ChunkResult>> pending = new ArrayList<>(chunks.size());
+        for (List<UUID> chunk : chunks) {
+            pending.add(CompletableFuture.supplyAsync(() -> transferChunk(chunk, rates), executor));
+        }
+
+        int events = 0;
+        int transferred = 0;
+        int skipped = 0;
+        List<TransferFailure> failures = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            ChunkResult result = pending.get(i).join();
+            events += chunks.get(i).size();
+            transferred += result.transferred().size();
+            skipped += result.skipped();
+            failures.addAll(result.failures());
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new TransferAllResponse(events, transferred, skipped, failures.size(),
+                rates.getVersion(), elapsedMillis, failures);
+    }
+
+    private ChunkResult transferChunk(List<UUID> chunk, ExchangeRates rates) {
+        try {
+            return transactions.execute(status -> {
+                ChunkResult result = repo.transferChunk(chunk, rates);
+                if (!result.transferred().isEmpty()) {
+                    reportCache.entriesChanged(repo.findReportEntriesByUuidIn(result.transferred()));
+                    boxTotals.swept(result.sweptMinorUnits());
+                }
+                return result;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Bulk transfer of {} events failed", chunk.size(), e);
+            List<TransferFailure> failures = new ArrayList<>(chunk.size());
+            for (UUID eventId : chunk) {
+                failures.add(new TransferFailure(eventId, "Transfer failed: " + e.getMessage()));
+            }
+            return new ChunkResult(List.of(), 0, failures);
+        }
+    }
+
+    private List<List<UUID>> allEventChunks() {
+        List<List<UUID>> chunks = new ArrayList<>();
+        List<UUID> page = repo.findEventIdsAfter(null, chunkSize);
+        while (!page.isEmpty()) {
+            chunks.add(page);
+            if (page.size() < chunkSize) {
+                break;
+            }
+            page = repo.findEventIdsAfter(page.get(page.size() - 1), chunkSize);
+        }
+        return chunks;
+    }
+
+    private List<List<UUID>> chunks(List<UUID> eventIds) {
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < eventIds.size(); from += chunkSize) {
+            chunks.add(eventIds.subList(from, Math.min(from + chunkSize, eventIds.size())));
+        }
+        return chunks;
+    }
+}
@@ -1,52 +1,180 @@
 package app.services;
 
+import app.dto.BatchDepositResponse;
+import app.dto.BoxBalance;
+import app.dto.BoxTotals;
+import app.dto.CollectionBoxResponse;
+import app.dto.DepositRequest;
+import app.dto.DepositResult;
+import app.dto.KeysetPage;
 import app.exceptions.arguments.ArgumentsException;
+import app.exceptions.arguments.InvalidAmountException;
+import app.exceptions.arguments.InvalidBatchSizeException;
 import app.exceptions.collection_box.*;
 import app.factories.CollectionBoxFactory;
 import app.models.CollectionBox;
+import app.models.Deposit;
+import app.models.LedgerEntry;
+import app.repositories.CollectionBoxBalanceRepository;
 import app.repositories.CollectionBoxRepository;
+import app.repositories.LedgerRepository;
+import app.services.concurrency.ConcurrencyControl;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+// One charity.service timer per public method, tagged with class and method
+@Timed("charity.service")
 @Service
 public class CollectionBoxService {
+    public static final int MAX_BATCH_SIZE = 10_000;
+
     private final CollectionBoxRepository repo;
+    private final ConcurrencyControl concurrency;
+    private final LedgerRepository ledger;
+    private final CollectionBoxTotals totals;
 
-    public CollectionBoxService(CollectionBoxRepository repo) {
+    public CollectionBoxService(CollectionBoxRepository repo,
+                                ConcurrencyControl concurrency,
+                                LedgerRepository ledger,
+                                CollectionBoxTotals totals) {
         this.repo = repo;
+        this.concurrency = concurrency;
+        this.ledger = ledger;
+        this.totals = totals;
     }
 
     public CollectionBox registerBox() {
         return repo.save(CollectionBoxFactory.createCollectionBox() );
     }
 
-    public List<CollectionBox> listAll() {
-        return repo.findAll();
+    public KeysetPage<CollectionBoxResponse> listPage(String after, int limit) throws ArgumentsException {
+        KeysetPage.checkLimit(limit);
+        UUID afterId = KeysetPage.decodeCursor(after);
+        Limit fetch = Limit.of(limit + 1);
+        List<CollectionBoxResponse> rows = afterId == null
+                ? repo.findResponses(fetch)
+                : repo.findResponsesAfter(afterId, fetch);
+        return KeysetPage.of(rows, limit, CollectionBoxResponse::uuid);
     }
 
-    @Transactional
-    public CollectionBox putMoney(UUID id, String currency, double amount) throws CollectionBoxException, ArgumentsException {
-        CollectionBox box = repo.findById(id)
-                .orElseThrow(() -> new CollectionBoxDoesntExistException());
-        box.putMoney(currency, amount);
-        return repo.save(box);
+    /**
+     * Deposits money with a single in-database increment; the box entity is never loaded,
+     * so concurrent deposits to the same box cannot overwrite each other.
+     */
+    public BoxBalance putMoney(UUID id, String currency, double amount) throws CollectionBoxException, ArgumentsException {
+        Deposit deposit = Deposit.of(id, currency, amount);
+        long balance = concurrency.<Long, CollectionBoxException, InvalidAmountException, RuntimeException>execute(
+                List.of(id), () -> {
+                    long updated = repo.addToBalance(deposit)
+                            .orElseThrow(() -> new CollectionBoxDoesntExistException());
+                    totals.deposited(deposit);
+                    return updated;
+                });
+        return new BoxBalance(id, deposit.currency().name(), deposit.currency().toMajorUnits(balance));
+    }
+
+    /**
+     * Applies all valid deposits in one transaction with batched updates. Invalid items and
+     * items for unknown boxes are reported as rejected and do not affect the rest of the batch.
+     */
+    public BatchDepositResponse putMoneyBatch(List<DepositRequest> requests) throws ArgumentsException {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new InvalidBatchSizeException(requests == null ? 0 : requests.size(), MAX_BATCH_SIZE);
+        }
+        DepositResult[] results = new DepositResult[requests.size()];
+        List<Deposit> deposits = new ArrayList<>(requests.size());
+        List<Integer> depositIndexes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            DepositRequest request = requests.get(i);
+            if (request == null || request.boxId() == null) {
+                results[i] = DepositResult.rejected(i, null, new CollectionBoxDoesntExistException().getMessage());
+                continue;
+            }
+            try {
+                deposits.add(Deposit.of(request.boxId(), request.currency(), request.amount()));
+                depositIndexes.add(i);
+            } catch (ArgumentsException e) {
+                results[i] = DepositResult.rejected(i, request.boxId(), e.getMessage());
+            }
+        }
+        if (!deposits.isEmpty()) {
+            int[] counts = applyDeposits(deposits);
+            for (int d = 0; d < deposits.size(); d++) {
+                int index = depositIndexes.get(d);
+                UUID boxId = deposits.get(d).boxId();
+                if (counts[d] > 0) {
+                    results[index] = DepositResult.applied(index, boxId);
+                } else if (counts[d] == CollectionBoxBalanceRepository.OVERFLOW) {
+                    results[index] = DepositResult.rejected(index, boxId,
+                            new InvalidAmountException(requests.get(index).amount()).getMessage());
+                } else {
+                    results[index] = DepositResult.rejected(index, boxId, new CollectionBoxDoesntExistException().getMessage());
+                }
+            }
+        }
+        return BatchDepositResponse.of(Arrays.asList(results));
+    }
+
+    /**
+     * Applies validated deposits in one transaction with batched updates. The count for a
+     * deposit is 0 when its box does not exist and
+     * {@link CollectionBoxBalanceRepository#OVERFLOW} when it would overflow the balance.
+     */
+    public int[] applyDeposits(List<Deposit> deposits) {
+        Set<UUID> boxIds = new LinkedHashSet<>();
+        for (Deposit deposit : deposits) {
+            boxIds.add(deposit.boxId());
+        }
+        return concurrency.<int[], RuntimeException, RuntimeException, RuntimeException>execute(
+                boxIds, () -> {
+                    int[] counts = repo.addToBalances(deposits);
+                    totals.deposited(deposits, counts);
+                    return counts;
+                });
     }
 
     @Transactional
     public void unregisterBox(UUID id) throws CollectionBoxException {
         CollectionBox box = repo.findById(id)
                 .orElseThrow(CollectionBoxDoesntExistException::new);
+        // The money in a deleted box is discarded, which the ledger records as emptying it
+        List<LedgerEntry> entries = LedgerEntry.emptied(box);
         repo.delete(box);
+        appendAfterFlush(entries);
     }
 
-    @Transactional
     public CollectionBox emptyBox(UUID id) throws CollectionBoxException {
-        CollectionBox box = repo.findById(id)
-                .orElseThrow(() -> new CollectionBoxDoesntExistException());
-        box.emptyBoxFully();
-        return repo.save(box);
+        return concurrency.<CollectionBox, CollectionBoxException, RuntimeException, RuntimeException>execute(
+                List.of(id), () -> {
+                    CollectionBox box = (concurrency.usesRowLocks() ? repo.findWithLockByUuid(id) : repo.findById(id))
+                            .orElseThrow(() -> new CollectionBoxDoesntExistException());
+                    List<LedgerEntry> entries = LedgerEntry.emptied(box);
+                    box.emptyBoxFully();
+                    CollectionBox saved = repo.save(box);
+                    appendAfterFlush(entries);
+                    return saved;
+                });
+    }
+
+    public BoxTotals getTotals() {
+        return totals.getTotals();
+    }
+
+    // The flush writes (and so locks) the box row before its ledger entries are appended
+    private void appendAfterFlush(List<LedgerEntry> entries) {
+        if (!entries.isEmpty()) {
+            repo.flush();
+            ledger.append(entries);
+            totals.recorded(entries);
+        }
     }
 }
@@ -0,0 +1,121 @@
+package app.services;
+
+import app.dto.BoxTotals;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.models.LedgerEntry;
+import app.repositories.CollectionBoxRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Money in all collection boxes together, per currency, kept in striped counters so reading
+ * it never touches the database. Every change to a box balance adds its delta once the
+ * transaction commits; a rolled-back change never shows up.
+ *
+ * <p>The currencies are summed one by one, so a read that races a commit can see it in one
+ * currency and not yet in another. Each instance keeps its own counters, so changes made
+ * through another instance appear only after a restart.
+ */
+@Component
+public class CollectionBoxTotals {
+    private final CollectionBoxRepository repo;
+    private final LongAdder[] minorUnits = new LongAdder[Currencies.count()];
+
+    public CollectionBoxTotals(CollectionBoxRepository repo) {
+        this.repo = repo;
+        for (int i = 0; i < minorUnits.length; i++) {
+            minorUnits[i] = new LongAdder();
+        }
+    }
+
+    // Runs before the web server starts and before the deposit workers that depend on it
+    @PostConstruct
+    public void rebuild() {
+        long[] sums = repo.sumBalances();
+        for (int i = 0; i < minorUnits.length; i++) {
+            minorUnits[i].reset();
+            minorUnits[i].add(sums[i]);
+        }
+    }
+
+    public BoxTotals getTotals() {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for (int i = 0; i < minorUnits.length; i++) {
+            Currencies currency = Currencies.fromOrdinal(i);
+            totals.put(currency.name(), currency.toMajorUnits(minorUnits[i].sum()));
+        }
+        return new BoxTotals(Collections.unmodifiableMap(totals));
+    }
+
+    public long getMinorUnits(Currencies currency) {
+        return minorUnits[currency.ordinal()].sum();
+    }
+
+    public void deposited(Deposit deposit) {
+        long[] deltas = new long[minorUnits.length];
+        deltas[deposit.currency().ordinal()] = deposit.minorUnits();
+        changed(deltas);
+    }
+
+    /**
+     * Adds the deposits with a positive update count in {@code counts}, as returned by
+     * {@link CollectionBoxRepository#addToBalances}; the others were not applied.
+     */
+    public void deposited(List<Deposit> deposits, int[] counts) {
+        long[] deltas = new long[minorUnits.length];
+        boolean any = false;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                Deposit deposit = deposits.get(i);
+                deltas[deposit.currency().ordinal()] += deposit.minorUnits();
+                any = true;
+            }
+        }
+        if (any) {
+            changed(deltas);
+        }
+    }
+
+    /**
+     * Applies the box side of ledger entries: deposits add, emptying and transfers subtract.
+     */
+    public void recorded(List<LedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long[] deltas = new long[minorUnits.length];
+        for (LedgerEntry entry : entries) {
+            deltas[entry.currency().ordinal()] += entry.minorUnits();
+        }
+        changed(deltas);
+    }
+
+    /**
+     * Takes out money moved from the boxes to events, in minor units by currency ordinal.
+     */
+    public void swept(long[] sweptMinorUnits) {
+        long[] deltas = new long[minorUnits.length];
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = -sweptMinorUnits[i];
+        }
+        changed(deltas);
+    }
+
+    // Adds deltas, in minor units by currency ordinal, after the current transaction commits
+    private void changed(long[] deltas) {
+        TransactionHooks.afterCommit(() -> {
+            for (int i = 0; i < deltas.length; i++) {
+                if (deltas[i] != 0L) {
+                    minorUnits[i].add(deltas[i]);
+                }
+            }
+        });
+    }
+}
@@ -1,35 +1,84 @@
 package app.services;
 
 import app.exceptions.arguments.InvalidCurrencyException;
+import app.models.Currencies;
+import app.models.ExchangeRates;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Instant;
 
 public class CurrencyConverter {
 
-    private static final Map<String, Double> exchangeRates = new HashMap<>();
+    // Replaced wholesale on every update; readers take one volatile read and never lock.
+    private static volatile ExchangeRates exchangeRates = ExchangeRates.defaults();
 
-    static {
-        exchangeRates.put("PLN_EUR", 0.22);
-        exchangeRates.put("PLN_GBP", 0.20);
-        exchangeRates.put("EUR_PLN", 4.50);
-        exchangeRates.put("EUR_GBP", 0.84);
-        exchangeRates.put("GBP_PLN", 5.04);
-        exchangeRates.put("GBP_EUR", 1.19);
-    }
+    private static final Object publishLock = new Object();
+
+    // Set by an admin override; provider refreshes are skipped until it is cleared. Written under publishLock
+    private static volatile boolean pinned;
 
     public static double convertCurrency(String fromCurrency, String toCurrency, double amount) throws InvalidCurrencyException {
-        if (fromCurrency.equals(toCurrency)) {
-            return amount;
+        return exchangeRates.convert(fromCurrency, toCurrency, amount);
+    }
+
+    public static double convertCurrency(Currencies fromCurrency, Currencies toCurrency, double amount) {
+        return exchangeRates.convert(fromCurrency, toCurrency, amount);
+    }
+
+    public static ExchangeRates getExchangeRates() {
+        return exchangeRates;
+    }
+
+    /**
+     * Publishes a new rate table and returns the published snapshot. Versions only
+     * grow (they are based on the publish time), and publishing a table with the same
+     * rates as the current one keeps the current version.
+     */
+    public static ExchangeRates updateExchangeRates(ExchangeRates newExchangeRates) {
+        if (newExchangeRates == null) {
+            throw new IllegalArgumentException("Exchange rates cannot be null");
+        }
+        synchronized (publishLock) {
+            ExchangeRates current = exchangeRates;
+            if (current.hasSameRates(newExchangeRates)) {
+                return current;
+            }
+            Instant now = Instant.now();
+            long version = Math.max(current.getVersion() + 1, now.toEpochMilli());
+            exchangeRates = newExchangeRates.withVersion(version, now);
+            return exchangeRates;
         }
+    }
 
-        String key = fromCurrency + "_" + toCurrency;
-        if (!exchangeRates.containsKey(key)) {
-            throw new InvalidCurrencyException("Exchange rate not available for: " + fromCurrency + " to " + toCurrency);
+    /**
+     * Publishes a manual override and keeps it until {@link #unpinExchangeRates()}: provider
+     * refreshes leave it in place.
+     */
+    public static ExchangeRates pinExchangeRates(ExchangeRates newExchangeRates) {
+        synchronized (publishLock) {
+            ExchangeRates published = updateExchangeRates(newExchangeRates);
+            pinned = true;
+            return published;
         }
+    }
 
-        double rate = exchangeRates.get(key);
-        return amount * rate;
+    public static void unpinExchangeRates() {
+        synchronized (publishLock) {
+            pinned = false;
+        }
     }
-}
 
+    public static boolean isPinned() {
+        return pinned;
+    }
+
+    /**
+     * Publishes rates fetched from a provider unless an override is pinned, in which case the
+     * current snapshot is returned unchanged. Checked under the publish lock, so a fetch that
+     * was in flight when the override arrived cannot replace it.
+     */
+    public static ExchangeRates refreshExchangeRates(ExchangeRates fetched) {
+        synchronized (publishLock) {
+            return pinned ? exchangeRates : updateExchangeRates(fetched);
+        }
+    }
+}
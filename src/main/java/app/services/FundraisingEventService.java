@@ -1,95 +1,225 @@
 package app.services;
 
 
+import app.dto.FundraisingEventBoxRow;
+import app.dto.FundraisingEventResponse;
+import app.dto.FundraisingEventSummary;
+import app.dto.KeysetPage;
 import app.exceptions.arguments.*;
 import app.exceptions.collection_box.*;
 import app.exceptions.fundraising_event.*;
 import app.factories.FundraisingEventFactory;
 import app.models.CollectionBox;
+import app.models.Currencies;
 import app.models.FinancialReportProjection;
 import app.models.FundraisingEvent;
+import app.models.LedgerEntry;
 import app.repositories.CollectionBoxRepository;
 import app.repositories.FundraisingEventRepository;
+import app.repositories.FundraisingEventTransferRepository.ChunkResult;
+import app.repositories.LedgerRepository;
+import app.services.concurrency.ConcurrencyControl;
+import app.services.report.FinancialReportCache;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+// One charity.service timer per public method, tagged with class and method
+@Timed("charity.service")
 @Service
 public class FundraisingEventService {
     private final FundraisingEventRepository repo;
     private final CollectionBoxRepository boxRepo;
+    private final ConcurrencyControl concurrency;
+    private final FinancialReportCache reportCache;
+    private final LedgerRepository ledger;
+    private final CollectionBoxTotals boxTotals;
 
     public FundraisingEventService(FundraisingEventRepository repo,
-                                   CollectionBoxRepository boxRepo) {
-        this.repo    = repo;
-        this.boxRepo = boxRepo;
+                                   CollectionBoxRepository boxRepo,
+                                   ConcurrencyControl concurrency,
+                                   FinancialReportCache reportCache,
+                                   LedgerRepository ledger,
+                                   CollectionBoxTotals boxTotals) {
+        this.repo        = repo;
+        this.boxRepo     = boxRepo;
+        this.concurrency = concurrency;
+        this.reportCache = reportCache;
+        this.ledger      = ledger;
+        this.boxTotals   = boxTotals;
     }
 
     @Transactional
     public FundraisingEvent createFundraisingEvent(String name, String currency) {
-        return repo.save(FundraisingEventFactory.createFundraisingEvent(name, currency));
+        FundraisingEvent event = repo.save(FundraisingEventFactory.createFundraisingEvent(name, currency));
+        reportCache.eventChanged(event);
+        return event;
     }
 
     @Transactional
-    public List<FundraisingEvent> listAll() {
-        return repo.findAll();
+    public KeysetPage<FundraisingEventSummary> listPage(String after, int limit) throws ArgumentsException {
+        KeysetPage.checkLimit(limit);
+        UUID afterId = KeysetPage.decodeCursor(after);
+        Limit fetch = Limit.of(limit + 1);
+        List<FundraisingEventSummary> rows = afterId == null
+                ? repo.findSummaries(fetch)
+                : repo.findSummariesAfter(afterId, fetch);
+        return KeysetPage.of(rows, limit, FundraisingEventSummary::uuid);
     }
 
-    @Transactional
+    /**
+     * Served from the in-memory report, which create, delete and transfer keep up to date.
+     */
     public List<FinancialReportProjection> getFinancialReport() {
-        return repo.findAllProjectedBy();
+        return reportCache.getReport();
+    }
+
+    /**
+     * Feeds report rows to {@code sink} as they are read, without collecting them into a list.
+     */
+    @Transactional
+    public void streamFinancialReport(Consumer<FinancialReportProjection> sink) {
+        try (Stream<FinancialReportProjection> rows = repo.streamAllProjectedBy()) {
+            rows.forEach(sink);
+        }
     }
 
     @Transactional
     public void deleteFundraisingEventById(UUID id) throws FundraisingEventException {
         FundraisingEvent event = repo.findById(id)
                 .orElseThrow(FundraisingEventDoesntExistException::new);
+        // The boxes hold the foreign key; they keep their money and become unassigned
+        for (CollectionBox box : event.getCollectionBoxes()) {
+            box.unregisterFundraisingEvent();
+        }
         repo.delete(event);
+        reportCache.eventRemoved(id);
     }
 
-    @Transactional
     public void assignCollectionBoxToFundraisingEvent(UUID eventId, UUID boxId)
             throws FundraisingEventException, CollectionBoxException {
-        FundraisingEvent event = repo.findById(eventId)
-                .orElseThrow(() -> new FundraisingEventDoesntExistException());
-        CollectionBox box = boxRepo.findById(boxId)
-                .orElseThrow(() -> new CollectionBoxDoesntExistException());
-        event.assignCollectionBox(box);
-        repo.save(event);
+        concurrency.<Void, FundraisingEventException, CollectionBoxException, RuntimeException>execute(
+                lockKeys(eventId, List.of(boxId)), () -> {
+                    // Box before event: the same order as transferMoney, so row locks cannot deadlock
+                    CollectionBox box = loadBox(boxId);
+                    FundraisingEvent event = loadEvent(eventId);
+                    event.assignCollectionBox(box);
+                    repo.save(event);
+                    return null;
+                });
     }
 
-    @Transactional
-    public void unregisterCollectionBoxFromFundraisingEvent(UUID eventId)
+    public void unregisterCollectionBoxFromFundraisingEvent(UUID eventId, UUID boxId)
             throws FundraisingEventException, CollectionBoxException {
-        FundraisingEvent event = repo.findById(eventId)
-                .orElseThrow(() -> new FundraisingEventDoesntExistException());
-        event.unregisterCollectionBox();
-        repo.save(event);
+        concurrency.<Void, FundraisingEventException, CollectionBoxException, RuntimeException>execute(
+                lockKeys(eventId, List.of(boxId)), () -> {
+                    lockBoxes(List.of(boxId));
+                    FundraisingEvent event = loadEvent(eventId);
+                    List<LedgerEntry> entries = event.unregisterCollectionBox(boxId);
+                    repo.save(event);
+                    appendAfterFlush(entries);
+                    return null;
+                });
+    }
+
+    public void unregisterCollectionBoxesFromFundraisingEvent(UUID eventId)
+            throws FundraisingEventException, CollectionBoxException {
+        List<UUID> boxIds = repo.findCollectionBoxIdsByEventId(eventId);
+        concurrency.<Void, FundraisingEventException, CollectionBoxException, RuntimeException>execute(
+                lockKeys(eventId, boxIds), () -> {
+                    lockBoxes(boxIds);
+                    FundraisingEvent event = loadEvent(eventId);
+                    List<LedgerEntry> entries = event.unregisterCollectionBoxes();
+                    repo.save(event);
+                    appendAfterFlush(entries);
+                    return null;
+                });
     }
 
     @Transactional
-    public CollectionBox getCollectionBoxByFundraisingEventId(UUID eventId)
+    public List<CollectionBox> getCollectionBoxesByFundraisingEventId(UUID eventId)
             throws FundraisingEventException {
         FundraisingEvent event = repo.findById(eventId)
                 .orElseThrow(() -> new FundraisingEventDoesntExistException());
-        return event.getCollectionBox();
+        return List.copyOf(event.getCollectionBoxes());
     }
 
-    @Transactional
-    public FundraisingEvent getFundraisingEventById(UUID id) throws FundraisingEventException {
-        return repo.findById(id)
-                .orElseThrow(() -> new FundraisingEventDoesntExistException());
+    public FundraisingEventResponse getFundraisingEventById(UUID id) throws FundraisingEventException {
+        List<FundraisingEventBoxRow> rows = repo.findResponseRowsByUuid(id);
+        if (rows.isEmpty()) {
+            throw new FundraisingEventDoesntExistException();
+        }
+        return FundraisingEventResponse.of(rows);
     }
 
-    @Transactional
+    /**
+     * Sweeps every box of the event with the set-based transfer that transfer-all uses: the
+     * boxes are summed per currency in SQL and each total is converted once. Does nothing
+     * when all the boxes are empty.
+     */
     public void transferMoney(UUID eventId)
             throws FundraisingEventException, ArgumentsException, CollectionBoxException {
-        FundraisingEvent event = repo.findById(eventId)
+        List<UUID> boxIds = repo.findCollectionBoxIdsByEventId(eventId);
+        concurrency.<Void, FundraisingEventException, ArgumentsException, CollectionBoxException>execute(
+                lockKeys(eventId, boxIds), () -> {
+                    // Not locked here: the transfer locks the boxes, then the event
+                    FundraisingEvent event = repo.findById(eventId)
+                            .orElseThrow(() -> new FundraisingEventDoesntExistException());
+                    ChunkResult result = repo.transferChunk(List.of(eventId), CurrencyConverter.getExchangeRates());
+                    if (!result.failures().isEmpty()) {
+                        if (Currencies.fromCode(event.getCurrency()) == null) {
+                            throw new InvalidCurrencyException(event.getCurrency());
+                        }
+                        throw new InvalidCollectionBoxException(result.failures().get(0).error());
+                    }
+                    if (!result.transferred().isEmpty()) {
+                        reportCache.entriesChanged(repo.findReportEntriesByUuidIn(result.transferred()));
+                        boxTotals.swept(result.sweptMinorUnits());
+                    }
+                    return null;
+                });
+    }
+
+    private static List<UUID> lockKeys(UUID eventId, List<UUID> boxIds) {
+        List<UUID> keys = new ArrayList<>(1 + boxIds.size());
+        keys.add(eventId);
+        keys.addAll(boxIds);
+        return keys;
+    }
+
+    private FundraisingEvent loadEvent(UUID eventId) throws FundraisingEventException {
+        return (concurrency.usesRowLocks() ? repo.findWithLockByUuid(eventId) : repo.findById(eventId))
                 .orElseThrow(() -> new FundraisingEventDoesntExistException());
-        event.transferMoney();
-        repo.save(event);
+    }
+
+    private CollectionBox loadBox(UUID boxId) throws CollectionBoxException {
+        return (concurrency.usesRowLocks() ? boxRepo.findWithLockByUuid(boxId) : boxRepo.findById(boxId))
+                .orElseThrow(() -> new CollectionBoxDoesntExistException());
+    }
+
+    // The flush writes (and so locks) the changed rows before their ledger entries are appended
+    private void appendAfterFlush(List<LedgerEntry> entries) {
+        if (!entries.isEmpty()) {
+            repo.flush();
+            ledger.append(entries);
+            boxTotals.recorded(entries);
+        }
+    }
+
+    // Takes the row locks on the event's boxes before the event itself is loaded
+    private void lockBoxes(List<UUID> boxIds) {
+        if (concurrency.usesRowLocks()) {
+            for (UUID boxId : boxIds) {
+                boxRepo.findWithLockByUuid(boxId);
+            }
+        }
     }
 
 }
@@ -0,0 +1,91 @@
+package app.services;
+
+import app.dto.LedgerMismatch;
+import app.dto.LedgerReconciliation;
+import app.dto.LedgerSnapshotResult;
+import app.repositories.LedgerRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshots the ledger on a background thread once per interval, so rebuilding a balance
+ * only replays the entries written since, and checks the live balances against it.
+ */
+@Timed("charity.service")
+public class LedgerService {
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+
+    private final LedgerRepository ledger;
+    private final TransactionOperations transactions;
+    private final Duration snapshotInterval;
+    private final ScheduledExecutorService scheduler;
+
+    public LedgerService(LedgerRepository ledger, TransactionOperations transactions, Duration snapshotInterval) {
+        this.ledger = ledger;
+        this.transactions = transactions;
+        this.snapshotInterval = snapshotInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (snapshotInterval.isZero() || snapshotInterval.isNegative()) {
+            return;
+        }
+        long millis = snapshotInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::scheduledSnapshot, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public LedgerSnapshotResult snapshot() {
+        long started = System.nanoTime();
+        int boxes = transactions.execute(status -> ledger.snapshotBoxes());
+        int events = transactions.execute(status -> ledger.snapshotEvents());
+        return new LedgerSnapshotResult(boxes, events, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Rebuilds every box and event balance from its snapshot and ledger tail and reports the
+     * ones that differ from the live tables. Only reads; nothing is locked or repaired.
+     */
+    public LedgerReconciliation reconcile() {
+        long started = System.nanoTime();
+        List<LedgerMismatch> mismatches = new ArrayList<>();
+        int boxes = ledger.reconcileBoxes(mismatches);
+        int events = ledger.reconcileEvents(mismatches);
+        if (!mismatches.isEmpty()) {
+            log.warn("Ledger reconciliation found {} mismatched balances", mismatches.size());
+        }
+        return new LedgerReconciliation(boxes, events, (System.nanoTime() - started) / 1_000_000, mismatches);
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            LedgerSnapshotResult result = snapshot();
+            log.debug("Ledger snapshot: {} boxes, {} events in {} ms",
+                    result.boxes(), result.events(), result.elapsedMillis());
+        } catch (RuntimeException e) {
+            // The next run folds the same tail; a snapshot is an optimisation, never required
+            log.warn("Ledger snapshot failed", e);
+        }
+    }
+}
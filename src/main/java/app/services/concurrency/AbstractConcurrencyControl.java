@@ -0,0 +1,59 @@
+package app.services.concurrency;
+
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.concurrent.atomic.LongAdder;
+
+abstract class AbstractConcurrencyControl implements ConcurrencyControl {
+    private final TransactionOperations transactions;
+
+    protected final LongAdder executions = new LongAdder();
+    protected final LongAdder contentions = new LongAdder();
+    protected final LongAdder retries = new LongAdder();
+    protected final LongAdder failures = new LongAdder();
+
+    protected AbstractConcurrencyControl(TransactionOperations transactions) {
+        this.transactions = transactions;
+    }
+
+    protected abstract ConcurrencyStrategy strategy();
+
+    @Override
+    public ConcurrencyStats getStats() {
+        return new ConcurrencyStats(strategy(), executions.sum(), contentions.sum(), retries.sum(), failures.sum());
+    }
+
+    /**
+     * Runs the mutation in a new transaction. Checked exceptions are carried out of the
+     * transaction callback (rolling it back) and rethrown unchanged.
+     */
+    protected <T, X1 extends Exception, X2 extends Exception, X3 extends Exception> T runInTransaction(
+            Mutation<T, X1, X2, X3> mutation) throws X1, X2, X3 {
+        try {
+            return transactions.execute(status -> {
+                try {
+                    return mutation.run();
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CheckedMutationException(e);
+                }
+            });
+        } catch (CheckedMutationException e) {
+            throw AbstractConcurrencyControl.<X1, X2, X3>rethrow(e.getCause());
+        }
+    }
+
+    // Safe: the cause was thrown by Mutation.run(), which can only throw X1, X2 or X3
+    @SuppressWarnings("unchecked")
+    private static <X1 extends Exception, X2 extends Exception, X3 extends Exception> X1 rethrow(Throwable cause)
+            throws X1 {
+        throw (X1) cause;
+    }
+
+    private static final class CheckedMutationException extends RuntimeException {
+        CheckedMutationException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package app.services.concurrency;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Strategy guarding read-modify-write operations on boxes and events. The mutation is
+ * run in its own transaction; {@code keys} are the ids of every entity it changes.
+ */
+public interface ConcurrencyControl {
+
+    <T, X1 extends Exception, X2 extends Exception, X3 extends Exception> T execute(
+            Collection<UUID> keys, Mutation<T, X1, X2, X3> mutation) throws X1, X2, X3;
+
+    // True when the mutation must load its entities with database row locks
+    boolean usesRowLocks();
+
+    ConcurrencyStats getStats();
+}
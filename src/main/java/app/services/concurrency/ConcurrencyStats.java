@@ -0,0 +1,10 @@
+package app.services.concurrency;
+
+public record ConcurrencyStats(
+        ConcurrencyStrategy strategy,
+        long executions,
+        long contentions,
+        long retries,
+        long failures
+) {
+}
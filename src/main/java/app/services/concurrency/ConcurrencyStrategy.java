@@ -0,0 +1,10 @@
+package app.services.concurrency;
+
+public enum ConcurrencyStrategy {
+    // @Version checks with bounded retry; cheapest when conflicts are rare
+    OPTIMISTIC,
+    // SELECT ... FOR UPDATE on the touched rows; conflicting requests queue in the database
+    PESSIMISTIC,
+    // In-process locks keyed by entity id; only correct with a single application instance
+    STRIPED
+}
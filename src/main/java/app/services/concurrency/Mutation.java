@@ -0,0 +1,11 @@
+package app.services.concurrency;
+
+/**
+ * Unit of work run by a {@link ConcurrencyControl} inside a transaction. The three
+ * exception types let services keep their checked exceptions; unused slots can be
+ * filled with {@link RuntimeException}.
+ */
+@FunctionalInterface
+public interface Mutation<T, X1 extends Exception, X2 extends Exception, X3 extends Exception> {
+    T run() throws X1, X2, X3;
+}
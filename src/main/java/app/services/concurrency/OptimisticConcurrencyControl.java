@@ -0,0 +1,74 @@
+package app.services.concurrency;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Relies on the {@code @Version} columns of the entities. A mutation that loses a race is
+ * retried in a fresh transaction, up to {@code maxAttempts} times, sleeping a random
+ * ("full jitter") exponential backoff between attempts so that colliding requests spread out.
+ */
+public class OptimisticConcurrencyControl extends AbstractConcurrencyControl {
+    private final int maxAttempts;
+    private final long baseBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public OptimisticConcurrencyControl(TransactionOperations transactions, int maxAttempts,
+                                        Duration baseBackoff, Duration maxBackoff) {
+        super(transactions);
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffNanos = baseBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    @Override
+    protected ConcurrencyStrategy strategy() {
+        return ConcurrencyStrategy.OPTIMISTIC;
+    }
+
+    @Override
+    public boolean usesRowLocks() {
+        return false;
+    }
+
+    @Override
+    public <T, X1 extends Exception, X2 extends Exception, X3 extends Exception> T execute(
+            Collection<UUID> keys, Mutation<T, X1, X2, X3> mutation) throws X1, X2, X3 {
+        executions.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return runInTransaction(mutation);
+            } catch (OptimisticLockingFailureException e) {
+                contentions.increment();
+                if (attempt >= maxAttempts) {
+                    failures.increment();
+                    throw e;
+                }
+                retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, baseBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package app.services.concurrency;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Mutations load their rows with {@code SELECT ... FOR UPDATE}, so conflicting requests
+ * wait for each other in the database. Lock timeouts and deadlocks are counted as contention
+ * and reported to the caller; they are not retried.
+ */
+public class PessimisticConcurrencyControl extends AbstractConcurrencyControl {
+
+    public PessimisticConcurrencyControl(TransactionOperations transactions) {
+        super(transactions);
+    }
+
+    @Override
+    protected ConcurrencyStrategy strategy() {
+        return ConcurrencyStrategy.PESSIMISTIC;
+    }
+
+    @Override
+    public boolean usesRowLocks() {
+        return true;
+    }
+
+    @Override
+    public <T, X1 extends Exception, X2 extends Exception, X3 extends Exception> T execute(
+            Collection<UUID> keys, Mutation<T, X1, X2, X3> mutation) throws X1, X2, X3 {
+        executions.increment();
+        try {
+            return runInTransaction(mutation);
+        } catch (PessimisticLockingFailureException e) {
+            contentions.increment();
+            failures.increment();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package app.services.concurrency;
+
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes mutations in-process with a fixed array of locks; each id maps to one stripe.
+ * Stripes are always taken in ascending index order so multi-key mutations cannot deadlock.
+ * Only correct when a single application instance writes to the database.
+ */
+public class StripedConcurrencyControl extends AbstractConcurrencyControl {
+    private final ReentrantLock[] stripes;
+
+    public StripedConcurrencyControl(TransactionOperations transactions, int stripeCount) {
+        super(transactions);
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount must be at least 1");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    protected ConcurrencyStrategy strategy() {
+        return ConcurrencyStrategy.STRIPED;
+    }
+
+    @Override
+    public boolean usesRowLocks() {
+        return false;
+    }
+
+    @Override
+    public <T, X1 extends Exception, X2 extends Exception, X3 extends Exception> T execute(
+            Collection<UUID> keys, Mutation<T, X1, X2, X3> mutation) throws X1, X2, X3 {
+        executions.increment();
+        int[] indexes = stripeIndexes(keys);
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock()) {
+                    contentions.increment();
+                    lock.lock();
+                }
+                locked++;
+            }
+            return runInTransaction(mutation);
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    private int[] stripeIndexes(Collection<UUID> keys) {
+        return keys.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(key -> Math.floorMod(key.hashCode(), stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,20 @@
+package app.services.exchange_rates;
+
+import app.models.ExchangeRates;
+
+/**
+ * Source of exchange rates behind {@link app.services.CurrencyConverter}.
+ * Implementations may be slow or fail; they are only ever called from the
+ * background refresher, never on the transfer path.
+ */
+public interface ExchangeRateProvider {
+
+    String getName();
+
+    ExchangeRates fetchExchangeRates() throws ExchangeRateProviderException;
+
+    // Providers whose rates never change are read once instead of being polled.
+    default boolean isRefreshable() {
+        return true;
+    }
+}
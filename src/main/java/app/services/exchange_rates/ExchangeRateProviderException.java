@@ -0,0 +1,7 @@
+package app.services.exchange_rates;
+
+public class ExchangeRateProviderException extends Exception {
+    public ExchangeRateProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
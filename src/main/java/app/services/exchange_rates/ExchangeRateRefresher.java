@@ -0,0 +1,108 @@
+package app.services.exchange_rates;
+
+import app.models.ExchangeRates;
+import app.services.CurrencyConverter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the rate snapshot in {@link CurrencyConverter} fresh. The provider is polled
+ * on a background thread once per TTL; conversions keep using the last published
+ * snapshot while a fetch is in flight or failing, so a slow source never blocks a transfer.
+ * Rates set by an admin are pinned and polling skips them until {@link #clearOverride()}.
+ */
+public class ExchangeRateRefresher {
+    private static final Logger log = LoggerFactory.getLogger(ExchangeRateRefresher.class);
+
+    private final ExchangeRateProvider provider;
+    private final Duration ttl;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Instant lastSuccessfulRefresh;
+
+    public ExchangeRateRefresher(ExchangeRateProvider provider, Duration ttl) {
+        this.provider = provider;
+        this.ttl = ttl;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "exchange-rate-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!provider.isRefreshable()) {
+            // Rates were published when CurrencyConverter was loaded; polling would only undo admin updates
+            lastSuccessfulRefresh = Instant.now();
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void refresh() {
+        if (CurrencyConverter.isPinned()) {
+            log.debug("Exchange rates are pinned by an admin override, skipping refresh from {}", provider.getName());
+            return;
+        }
+        try {
+            ExchangeRates published = CurrencyConverter.refreshExchangeRates(provider.fetchExchangeRates());
+            lastSuccessfulRefresh = Instant.now();
+            log.debug("Exchange rates version {} from {}", published.getVersion(), provider.getName());
+        } catch (ExchangeRateProviderException | RuntimeException e) {
+            if (isStale()) {
+                log.warn("Exchange rates from {} are stale, last refresh {}", provider.getName(), lastSuccessfulRefresh, e);
+            } else {
+                log.info("Exchange rate refresh from {} failed, keeping current rates", provider.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Drops the admin override and republishes the provider's rates right away: a polled
+     * provider is refreshed, a static one is read again, since nothing else would restore it.
+     */
+    public void clearOverride() {
+        CurrencyConverter.unpinExchangeRates();
+        if (provider.isRefreshable()) {
+            refresh();
+            return;
+        }
+        try {
+            // Through refresh, not update: an override PUT right after the clear still wins
+            CurrencyConverter.refreshExchangeRates(provider.fetchExchangeRates());
+        } catch (ExchangeRateProviderException | RuntimeException e) {
+            log.warn("Could not restore exchange rates from {} after clearing the override", provider.getName(), e);
+        }
+    }
+
+    // Not stale while pinned: the override is what an admin asked for
+    public boolean isStale() {
+        if (!provider.isRefreshable() || CurrencyConverter.isPinned()) {
+            return false;
+        }
+        Instant last = lastSuccessfulRefresh;
+        return last == null || last.plus(ttl).isBefore(Instant.now());
+    }
+
+    public Instant getLastSuccessfulRefresh() {
+        return lastSuccessfulRefresh;
+    }
+
+    public String getProviderName() {
+        return provider.getName();
+    }
+}
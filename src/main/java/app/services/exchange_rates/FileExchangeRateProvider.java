@@ -0,0 +1,41 @@
+package app.services.exchange_rates;
+
+import app.exceptions.arguments.InvalidExchangeRateException;
+import app.models.ExchangeRates;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Reads rates from a JSON file of "FROM_TO" pairs, e.g. {"EUR_PLN": 4.5, ...}.
+ */
+public class FileExchangeRateProvider implements ExchangeRateProvider {
+    private static final TypeReference<Map<String, Double>> RATES_TYPE = new TypeReference<>() {};
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileExchangeRateProvider(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getName() {
+        return "file:" + path;
+    }
+
+    @Override
+    public ExchangeRates fetchExchangeRates() throws ExchangeRateProviderException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return ExchangeRates.of(objectMapper.readValue(in, RATES_TYPE), getName());
+        } catch (IOException | InvalidExchangeRateException e) {
+            throw new ExchangeRateProviderException("Cannot read exchange rates from " + path, e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package app.services.exchange_rates;
+
+import app.exceptions.arguments.InvalidExchangeRateException;
+import app.models.ExchangeRates;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Fetches rates from an HTTP endpoint (e.g. a local rate stub) that returns a JSON
+ * object of "FROM_TO" pairs. Requests are bounded by the configured timeout.
+ */
+public class HttpExchangeRateProvider implements ExchangeRateProvider {
+    private static final TypeReference<Map<String, Double>> RATES_TYPE = new TypeReference<>() {};
+
+    private final URI uri;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+
+    public HttpExchangeRateProvider(URI uri, Duration timeout, ObjectMapper objectMapper) {
+        this.uri = uri;
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "http:" + uri;
+    }
+
+    @Override
+    public ExchangeRates fetchExchangeRates() throws ExchangeRateProviderException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected status " + response.statusCode());
+            }
+            return ExchangeRates.of(objectMapper.readValue(response.body(), RATES_TYPE), getName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExchangeRateProviderException("Interrupted while fetching exchange rates from " + uri, e);
+        } catch (IOException | InvalidExchangeRateException e) {
+            throw new ExchangeRateProviderException("Cannot fetch exchange rates from " + uri, e);
+        }
+    }
+}
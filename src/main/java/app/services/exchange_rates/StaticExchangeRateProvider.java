@@ -0,0 +1,21 @@
+package app.services.exchange_rates;
+
+import app.models.ExchangeRates;
+
+public class StaticExchangeRateProvider implements ExchangeRateProvider {
+
+    @Override
+    public String getName() {
+        return ExchangeRates.DEFAULT_SOURCE;
+    }
+
+    @Override
+    public ExchangeRates fetchExchangeRates() {
+        return ExchangeRates.defaults();
+    }
+
+    @Override
+    public boolean isRefreshable() {
+        return false;
+    }
+}
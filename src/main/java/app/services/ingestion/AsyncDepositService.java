@@ -0,0 +1,255 @@
+package app.services.ingestion;
+
+import app.dto.AsyncDepositStatus;
+import app.dto.AsyncDepositStatus.State;
+import app.exceptions.arguments.ArgumentsException;
+import app.exceptions.arguments.InvalidAmountException;
+import app.exceptions.collection_box.CollectionBoxDoesntExistException;
+import app.factories.IdGenerators;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.repositories.CollectionBoxBalanceRepository;
+import app.services.CollectionBoxService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deposits accepted into a bounded in-memory queue and applied by a fixed pool of workers.
+ * Each worker takes whatever is queued (up to the batch size), adds up the deposits to the
+ * same box and currency, and applies the result in one transaction through
+ * {@link CollectionBoxService#applyDeposits}. When the queue is full a deposit is refused
+ * instead of waiting, so memory and latency stay bounded under overload.
+ *
+ * <p>The queue is not durable: deposits still queued when the process dies are lost. Their
+ * status can be looked up by tracking id for a while after they are applied.
+ */
+@Timed("charity.service")
+public class AsyncDepositService {
+    private static final Logger log = LoggerFactory.getLogger(AsyncDepositService.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+
+    private final CollectionBoxService boxService;
+    private final BlockingQueue<Queued> queue;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int batchSize;
+    private final Cache<UUID, AsyncDepositStatus> statuses;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private volatile boolean running = true;
+
+    public AsyncDepositService(CollectionBoxService boxService,
+                               ExecutorService workers,
+                               int workerCount,
+                               int queueCapacity,
+                               int batchSize,
+                               long trackedDeposits,
+                               Duration trackingTtl) {
+        this.boxService  = boxService;
+        this.queue       = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers     = workers;
+        this.workerCount = workerCount;
+        this.batchSize   = batchSize;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(trackedDeposits)
+                .expireAfterWrite(trackingTtl)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drain);
+        }
+    }
+
+    // Stops taking deposits and lets the workers apply what is already queued
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} queued deposits were not applied before shutdown", queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues the deposit and returns its status, or empty when the queue is full.
+     */
+    public Optional<AsyncDepositStatus> submit(UUID boxId, String currency, double amount) throws ArgumentsException {
+        Deposit deposit = Deposit.of(boxId, currency, amount);
+        AsyncDepositStatus status = new AsyncDepositStatus(IdGenerators.nextId(), boxId, deposit.currency().name(),
+                deposit.currency().toMajorUnits(deposit.minorUnits()), State.QUEUED, null);
+        // Tracked first, so a worker that applies it at once finds the entry to update
+        statuses.put(status.trackingId(), status);
+        if (!running || !queue.offer(new Queued(status.trackingId(), deposit))) {
+            statuses.invalidate(status.trackingId());
+            throttled.increment();
+            return Optional.empty();
+        }
+        accepted.increment();
+        return Optional.of(status);
+    }
+
+    public Optional<AsyncDepositStatus> getStatus(UUID trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    public AsyncDepositStats getStats() {
+        return new AsyncDepositStats(queue.size(), queue.size() + queue.remainingCapacity(),
+                accepted.sum(), throttled.sum(), applied.sum(), rejected.sum(), failed.sum(), batches.sum());
+    }
+
+    private void drain() {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            Queued first;
+            try {
+                first = queue.poll(POLL_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                apply(batch);
+            } catch (RuntimeException e) {
+                // apply() reports its own failures; this only keeps the worker alive
+                log.error("Async deposit worker failed", e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void apply(List<Queued> batch) {
+        // One increment per box and currency, however many deposits the batch holds for it. A
+        // deposit that would overflow the running sum starts another increment for the same key.
+        Map<BoxCurrency, Coalesced> open = new HashMap<>();
+        List<Coalesced> groups = new ArrayList<>();
+        for (Queued queued : batch) {
+            Deposit deposit = queued.deposit();
+            BoxCurrency key = new BoxCurrency(deposit.boxId(), deposit.currency());
+            Coalesced group = open.get(key);
+            if (group == null || !group.add(queued)) {
+                group = new Coalesced(key);
+                group.add(queued);
+                open.put(key, group);
+                groups.add(group);
+            }
+        }
+        batches.increment();
+        try {
+            settle(groups, boxService.applyDeposits(toDeposits(groups)));
+        } catch (RuntimeException e) {
+            if (groups.size() == 1) {
+                fail(groups.get(0), e);
+                return;
+            }
+            // One bad increment must not fail the others: apply them one by one
+            log.warn("Applying {} queued deposits failed, applying them one by one", batch.size(), e);
+            for (Coalesced group : groups) {
+                try {
+                    settle(List.of(group), boxService.applyDeposits(toDeposits(List.of(group))));
+                } catch (RuntimeException single) {
+                    fail(group, single);
+                }
+            }
+        }
+    }
+
+    private void settle(List<Coalesced> groups, int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            Coalesced group = groups.get(i);
+            boolean isApplied = counts[i] > 0;
+            String error = null;
+            if (counts[i] == CollectionBoxBalanceRepository.OVERFLOW) {
+                error = new InvalidAmountException(group.key.currency().toMajorUnits(group.minorUnits)).getMessage();
+            } else if (!isApplied) {
+                error = new CollectionBoxDoesntExistException().getMessage();
+            }
+            for (UUID trackingId : group.trackingIds) {
+                finish(trackingId, isApplied ? State.APPLIED : State.REJECTED, error);
+            }
+            (isApplied ? applied : rejected).add(group.trackingIds.size());
+        }
+    }
+
+    private void fail(Coalesced group, RuntimeException e) {
+        log.warn("Applying {} queued deposits to box {} failed", group.trackingIds.size(), group.key.boxId(), e);
+        for (UUID trackingId : group.trackingIds) {
+            finish(trackingId, State.FAILED, "Deposit could not be applied: " + e.getMessage());
+        }
+        failed.add(group.trackingIds.size());
+    }
+
+    private static List<Deposit> toDeposits(List<Coalesced> groups) {
+        List<Deposit> deposits = new ArrayList<>(groups.size());
+        for (Coalesced group : groups) {
+            deposits.add(new Deposit(group.key.boxId(), group.key.currency(), group.minorUnits));
+        }
+        return deposits;
+    }
+
+    private void finish(UUID trackingId, State state, String error) {
+        AsyncDepositStatus status = statuses.getIfPresent(trackingId);
+        if (status != null) {
+            statuses.put(trackingId, status.withState(state, error));
+        }
+    }
+
+    private record Queued(UUID trackingId, Deposit deposit) {
+    }
+
+    private record BoxCurrency(UUID boxId, Currencies currency) {
+    }
+
+    private static final class Coalesced {
+        final BoxCurrency key;
+        final List<UUID> trackingIds = new ArrayList<>(1);
+        long minorUnits;
+
+        Coalesced(BoxCurrency key) {
+            this.key = key;
+        }
+
+        // False, leaving the sum unchanged, when the deposit does not fit in it
+        boolean add(Queued queued) {
+            try {
+                minorUnits = Math.addExact(minorUnits, queued.deposit().minorUnits());
+            } catch (ArithmeticException e) {
+                return false;
+            }
+            trackingIds.add(queued.trackingId());
+            return true;
+        }
+    }
+}
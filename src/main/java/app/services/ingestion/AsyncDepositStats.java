@@ -0,0 +1,17 @@
+package app.services.ingestion;
+
+/**
+ * Counters of the async deposit queue since startup. {@code throttled} deposits were refused
+ * with 429 because the queue was full; {@code batches} counts the writes that drained it.
+ */
+public record AsyncDepositStats(
+        int queued,
+        int capacity,
+        long accepted,
+        long throttled,
+        long applied,
+        long rejected,
+        long failed,
+        long batches
+) {
+}
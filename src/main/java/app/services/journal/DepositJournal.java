@@ -0,0 +1,383 @@
+package app.services.journal;
+
+import app.models.Currencies;
+import app.models.Deposit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only deposit journal in memory-mapped segment files. Each deposit is a fixed-size,
+ * checksummed record numbered by a sequence that starts at 1; a segment file is named after
+ * the sequence of its first record and a new one is started when it is full.
+ *
+ * <p>{@link #append} returns once the record is forced to disk. Appenders that arrive while a
+ * force is running wait for the next one, which then covers all of them (group commit), so
+ * the number of forces stays low under load.
+ *
+ * <p>On {@link #open}, every segment is scanned up to its first invalid record. A record torn
+ * by a crash was never acknowledged, so the journal simply continues from there.
+ */
+public class DepositJournal implements Closeable {
+    static final int RECORD_BYTES = 32;
+    private static final int CHECKSUMMED_BYTES = 28;
+    private static final String SEGMENT_PREFIX = "deposits-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String ID_FILE = "journal.id";
+
+    private final Path directory;
+    private final UUID id;
+    private final int segmentRecords;
+    // Keyed by the sequence of the first record in the segment
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Segment current;
+    private long nextSequence;
+    private boolean closed;
+
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final Condition forced = forceLock.newCondition();
+    private boolean forcing;
+    private volatile long durableSequence;
+
+    private DepositJournal(Path directory, UUID id, int segmentRecords) {
+        this.directory = directory;
+        this.id = id;
+        this.segmentRecords = segmentRecords;
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it when missing. New segments hold
+     * {@code segmentBytes} rounded down to whole records; existing ones keep their size.
+     */
+    public static DepositJournal open(Path directory, long segmentBytes) throws IOException {
+        long records = segmentBytes / RECORD_BYTES;
+        if (records < 1 || records > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("Journal segment size out of range: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        DepositJournal journal = new DepositJournal(directory, readOrCreateId(directory), (int) records);
+        journal.recover();
+        return journal;
+    }
+
+    /**
+     * Identifies this journal across restarts, so its apply position can be stored per journal
+     * when several instances write to the same database.
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Appends the deposit and returns its sequence once the record is durable.
+     */
+    public long append(Deposit deposit) {
+        byte[] record = encode(deposit);
+        long sequence;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Deposit journal is closed");
+            }
+            if (current.records == current.capacity) {
+                rotate();
+            }
+            current.buffer.put(current.records * RECORD_BYTES, record);
+            // Volatile write: readers that see the count also see the record
+            current.records++;
+            sequence = nextSequence++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start a new journal segment", e);
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Reads up to {@code max} durable records starting at sequence {@code from}.
+     */
+    public List<JournaledDeposit> read(long from, int max) {
+        long last = durableSequence;
+        List<JournaledDeposit> deposits = new ArrayList<>(Math.min(max, 1024));
+        Long start = segments.floorKey(from);
+        for (Segment segment : segments.tailMap(start == null ? from : start, true).values()) {
+            int records = segment.records;
+            for (long sequence = Math.max(from, segment.firstSequence);
+                 sequence < segment.firstSequence + records && sequence <= last && deposits.size() < max;
+                 sequence++) {
+                int offset = (int) (sequence - segment.firstSequence) * RECORD_BYTES;
+                deposits.add(new JournaledDeposit(sequence, decode(segment.buffer, offset)));
+            }
+            if (deposits.size() == max) {
+                break;
+            }
+        }
+        return deposits;
+    }
+
+    /**
+     * Sequence of the last durable record, 0 while the journal is empty.
+     */
+    public long getLastSequence() {
+        return durableSequence;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Deletes the segments whose records are all at or below {@code appliedSequence}. The
+     * segment being written to is always kept.
+     */
+    public void release(long appliedSequence) throws IOException {
+        for (Map.Entry<Long, Segment> entry : segments.entrySet()) {
+            Segment segment = entry.getValue();
+            appendLock.lock();
+            try {
+                if (segment == current || segment.firstSequence + segment.records - 1 > appliedSequence) {
+                    return;
+                }
+                segments.remove(entry.getKey());
+            } finally {
+                appendLock.unlock();
+            }
+            // The mapping stays valid until it is garbage collected
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                current.buffer.force();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void awaitDurable(long sequence) {
+        forceLock.lock();
+        try {
+            while (durableSequence < sequence) {
+                if (forcing) {
+                    forced.awaitUninterruptibly();
+                    continue;
+                }
+                // Leader: one force covers everything appended so far, including the followers
+                forcing = true;
+                long target = 0;
+                forceLock.unlock();
+                try {
+                    target = forceWritten();
+                } finally {
+                    forceLock.lock();
+                    forcing = false;
+                    if (target > durableSequence) {
+                        durableSequence = target;
+                    }
+                    forced.signalAll();
+                }
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    // Only called by the current leader. Segments before the current one were forced on rotation.
+    private long forceWritten() {
+        Segment segment;
+        int records;
+        long target;
+        appendLock.lock();
+        try {
+            segment = current;
+            records = segment.records;
+            target = nextSequence - 1;
+        } finally {
+            appendLock.unlock();
+        }
+        if (records > segment.forcedRecords) {
+            segment.buffer.force(segment.forcedRecords * RECORD_BYTES, (records - segment.forcedRecords) * RECORD_BYTES);
+            segment.forcedRecords = records;
+        }
+        return target;
+    }
+
+    // Called with appendLock held
+    private void rotate() throws IOException {
+        current.buffer.force();
+        current.forcedRecords = current.records;
+        current = createSegment(nextSequence);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(DepositJournal::isSegment).toList();
+        }
+        for (Path file : files) {
+            Segment segment = mapSegment(file, firstSequenceOf(file), Files.size(file));
+            segment.records = countValidRecords(segment);
+            clearTail(segment);
+            segment.forcedRecords = segment.records;
+            segments.put(segment.firstSequence, segment);
+        }
+        if (segments.isEmpty()) {
+            current = createSegment(1);
+        } else {
+            current = segments.lastEntry().getValue();
+        }
+        nextSequence = current.firstSequence + current.records;
+        durableSequence = nextSequence - 1;
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        Segment segment = mapSegment(file, firstSequence, (long) segmentRecords * RECORD_BYTES);
+        segments.put(firstSequence, segment);
+        return segment;
+    }
+
+    private static Segment mapSegment(Path file, long firstSequence, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // A new file is zero-filled, and a zeroed record never passes the checksum
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes - bytes % RECORD_BYTES);
+            return new Segment(file, firstSequence, buffer);
+        }
+    }
+
+    private static int countValidRecords(Segment segment) {
+        byte[] record = new byte[RECORD_BYTES];
+        int records = 0;
+        while (records < segment.capacity) {
+            segment.buffer.get(records * RECORD_BYTES, record);
+            if (!isValid(record)) {
+                break;
+            }
+            records++;
+        }
+        return records;
+    }
+
+    /**
+     * Zeroes every record after the first invalid one. They were never acknowledged, and left in
+     * place they would become readable again once new appends overwrite the invalid record and
+     * a second crash happens before the appends reach them.
+     */
+    private static void clearTail(Segment segment) {
+        byte[] record = new byte[RECORD_BYTES];
+        byte[] zero = new byte[RECORD_BYTES];
+        boolean cleared = false;
+        for (int i = segment.records; i < segment.capacity; i++) {
+            segment.buffer.get(i * RECORD_BYTES, record);
+            if (!Arrays.equals(record, zero)) {
+                segment.buffer.put(i * RECORD_BYTES, zero);
+                cleared = true;
+            }
+        }
+        if (cleared) {
+            segment.buffer.force();
+        }
+    }
+
+    private static UUID readOrCreateId(Path directory) throws IOException {
+        Path file = directory.resolve(ID_FILE);
+        if (Files.exists(file)) {
+            return UUID.fromString(Files.readString(file).trim());
+        }
+        UUID id = UUID.randomUUID();
+        Files.writeString(file, id.toString());
+        return id;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    // box id (16 bytes), minor units (8), currency ordinal (4), CRC32 of the first 28 bytes (4)
+    static byte[] encode(Deposit deposit) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        record.putLong(deposit.boxId().getMostSignificantBits());
+        record.putLong(deposit.boxId().getLeastSignificantBits());
+        record.putLong(deposit.minorUnits());
+        record.putInt(deposit.currency().ordinal());
+        record.putInt(checksum(record.array()));
+        return record.array();
+    }
+
+    private static Deposit decode(MappedByteBuffer buffer, int offset) {
+        UUID boxId = new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+        long minorUnits = buffer.getLong(offset + 16);
+        Currencies currency = Currencies.fromOrdinal(buffer.getInt(offset + 24));
+        return new Deposit(boxId, currency, minorUnits);
+    }
+
+    private static boolean isValid(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        int currency = buffer.getInt(24);
+        return buffer.getInt(CHECKSUMMED_BYTES) == checksum(record)
+                && currency >= 0 && currency < Currencies.count();
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record, 0, CHECKSUMMED_BYTES);
+        return (int) crc.getValue();
+    }
+
+    public record JournaledDeposit(long sequence, Deposit deposit) {
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long firstSequence;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        // Written under appendLock, read without it by read()
+        volatile int records;
+        // Records already forced, so a leader only forces the new range. Touched by the leader and
+        // by rotation; a stale value only means forcing a range twice.
+        int forcedRecords;
+
+        Segment(Path path, long firstSequence, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity() / RECORD_BYTES;
+        }
+    }
+}
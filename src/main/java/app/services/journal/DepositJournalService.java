@@ -0,0 +1,216 @@
+package app.services.journal;
+
+import app.dto.DepositJournalStats;
+import app.dto.DepositReceipt;
+import app.exceptions.arguments.ArgumentsException;
+import app.models.Deposit;
+import app.repositories.CollectionBoxBalanceRepository;
+import app.repositories.CollectionBoxRepository;
+import app.repositories.DepositJournalRepository;
+import app.services.CollectionBoxTotals;
+import app.services.concurrency.ConcurrencyControl;
+import app.services.journal.DepositJournal.JournaledDeposit;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal-mode deposits. A deposit is acknowledged as soon as it is durable in the
+ * {@link DepositJournal}; a background thread applies the journal to the box balances in
+ * batches. While the database is unavailable deposits keep being accepted, and the backlog
+ * is applied once it is back. On start, everything after the stored apply position is
+ * replayed before new deposits are applied.
+ */
+@Timed("charity.service")
+public class DepositJournalService {
+    private static final Logger log = LoggerFactory.getLogger(DepositJournalService.class);
+
+    private final DepositJournal journal;
+    private final CollectionBoxRepository repo;
+    private final DepositJournalRepository positions;
+    private final ConcurrencyControl concurrency;
+    private final CollectionBoxTotals totals;
+    private final Duration applyInterval;
+    private final int applyBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile long appliedSequence;
+
+    public DepositJournalService(DepositJournal journal,
+                                 CollectionBoxRepository repo,
+                                 DepositJournalRepository positions,
+                                 ConcurrencyControl concurrency,
+                                 CollectionBoxTotals totals,
+                                 Duration applyInterval,
+                                 int applyBatchSize) {
+        this.journal        = journal;
+        this.repo           = repo;
+        this.positions      = positions;
+        this.concurrency    = concurrency;
+        this.totals         = totals;
+        this.applyInterval  = applyInterval;
+        this.applyBatchSize = applyBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deposit-journal-applier");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        appliedSequence = positions.findAppliedSequence(journal.getId());
+        long behind = journal.getLastSequence() - appliedSequence;
+        if (behind > 0) {
+            log.info("Replaying {} journaled deposits after sequence {}", behind, appliedSequence);
+            try {
+                applyPending();
+            } catch (RuntimeException e) {
+                // Still in the journal; the scheduled apply retries it once the database is back
+                log.warn("Could not replay journaled deposits on start, {} pending",
+                        journal.getLastSequence() - appliedSequence, e);
+            }
+        }
+        long millis = applyInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::scheduledApply, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        try {
+            applyPending();
+        } catch (RuntimeException e) {
+            // Still in the journal; the next start replays it
+            log.warn("Could not apply journaled deposits on shutdown", e);
+        }
+    }
+
+    /**
+     * Validates the deposit and writes it to the journal. The box is not checked: a deposit
+     * for a box that does not exist when it is applied is dropped and counted.
+     */
+    public DepositReceipt accept(UUID id, String currency, double amount) throws ArgumentsException {
+        Deposit deposit = Deposit.of(id, currency, amount);
+        long sequence = journal.append(deposit);
+        return new DepositReceipt(id, deposit.currency().name(),
+                deposit.currency().toMajorUnits(deposit.minorUnits()), sequence);
+    }
+
+    /**
+     * Applies every durable deposit after the stored position, one transaction per batch.
+     * Returns the number of deposits applied.
+     */
+    public synchronized int applyPending() {
+        int applied = 0;
+        List<JournaledDeposit> batch = journal.read(appliedSequence + 1, applyBatchSize);
+        while (!batch.isEmpty()) {
+            apply(batch);
+            applied += batch.size();
+            batch = journal.read(appliedSequence + 1, applyBatchSize);
+        }
+        return applied;
+    }
+
+    public DepositJournalStats getStats() {
+        long last = journal.getLastSequence();
+        long applied = appliedSequence;
+        return new DepositJournalStats(journal.getId(), last, applied, last - applied,
+                dropped.get(), journal.getSegmentCount());
+    }
+
+    private void apply(List<JournaledDeposit> batch) {
+        try {
+            applyBatch(batch);
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                reject(batch.get(0), e);
+                return;
+            }
+            // One record the database refuses must not hold back the others: find it
+            log.warn("Applying {} journaled deposits failed, applying them one by one", batch.size(), e);
+            for (JournaledDeposit journaled : batch) {
+                try {
+                    applyBatch(List.of(journaled));
+                } catch (DataIntegrityViolationException single) {
+                    reject(journaled, single);
+                }
+            }
+        }
+    }
+
+    private void applyBatch(List<JournaledDeposit> batch) {
+        List<Deposit> deposits = new ArrayList<>(batch.size());
+        Set<UUID> boxIds = new LinkedHashSet<>();
+        for (JournaledDeposit journaled : batch) {
+            deposits.add(journaled.deposit());
+            boxIds.add(journaled.deposit().boxId());
+        }
+        long last = batch.get(batch.size() - 1).sequence();
+        int[] counts = concurrency.<int[], RuntimeException, RuntimeException, RuntimeException>execute(
+                boxIds, () -> {
+                    int[] updated = repo.addToBalances(deposits);
+                    positions.saveAppliedSequence(journal.getId(), last);
+                    totals.deposited(deposits, updated);
+                    return updated;
+                });
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                dropped.incrementAndGet();
+                log.warn("Dropped journaled deposit {}: box {} does not exist",
+                        batch.get(i).sequence(), batch.get(i).deposit().boxId());
+            } else if (counts[i] == CollectionBoxBalanceRepository.OVERFLOW) {
+                dropped.incrementAndGet();
+                log.error("Dropped journaled deposit {}: {} {} minor units would overflow the balance of box {}",
+                        batch.get(i).sequence(), batch.get(i).deposit().minorUnits(),
+                        batch.get(i).deposit().currency(), batch.get(i).deposit().boxId());
+            }
+        }
+        advance(last);
+    }
+
+    // Retrying would fail the same way forever, so the record is logged, counted and skipped
+    private void reject(JournaledDeposit journaled, DataIntegrityViolationException e) {
+        Deposit deposit = journaled.deposit();
+        log.error("Dropped journaled deposit {}: {} {} minor units to box {} was refused by the database",
+                journaled.sequence(), deposit.minorUnits(), deposit.currency(), deposit.boxId(), e);
+        positions.saveAppliedSequence(journal.getId(), journaled.sequence());
+        dropped.incrementAndGet();
+        advance(journaled.sequence());
+    }
+
+    private void advance(long sequence) {
+        appliedSequence = sequence;
+        try {
+            journal.release(sequence);
+        } catch (IOException e) {
+            log.warn("Could not delete applied journal segments", e);
+        }
+    }
+
+    private void scheduledApply() {
+        try {
+            applyPending();
+        } catch (RuntimeException e) {
+            // Nothing is lost: the position did not move, so the same batch is retried next run
+            log.warn("Applying journaled deposits failed, {} pending", journal.getLastSequence() - appliedSequence, e);
+        }
+    }
+}
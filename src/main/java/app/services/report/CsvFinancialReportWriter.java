@@ -0,0 +1,61 @@
+package app.services.report;
+
+import app.models.FinancialReportProjection;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+class CsvFinancialReportWriter extends FinancialReportWriter {
+    private final Writer writer;
+
+    CsvFinancialReportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.writer.write("name,accountBalance,currency\n");
+    }
+
+    @Override
+    protected void writeRow(FinancialReportProjection row) throws IOException {
+        writeField(row.getName());
+        writer.write(',');
+        if (row.getAccountBalance() != null) {
+            writer.write(Double.toString(row.getAccountBalance()));
+        }
+        writer.write(',');
+        writeField(row.getCurrency());
+        writer.write('\n');
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The response stream belongs to the servlet container; only flush it
+        writer.flush();
+    }
+}
@@ -0,0 +1,116 @@
+package app.services.report;
+
+import app.models.FinancialReportEntry;
+import app.models.FinancialReportProjection;
+import app.models.FundraisingEvent;
+import app.repositories.FundraisingEventRepository;
+import app.services.TransactionHooks;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory materialized financial report. Readers get the current immutable snapshot
+ * without locking or touching the database; writers publish a new snapshot once their
+ * transaction commits, so a rolled-back change never shows up in the report.
+ */
+@Component
+public class FinancialReportCache {
+    private final FundraisingEventRepository repo;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    public FinancialReportCache(FundraisingEventRepository repo) {
+        this.repo = repo;
+    }
+
+    // Runs before the web server starts, so no request can commit while the report is being loaded
+    @PostConstruct
+    public void rebuild() {
+        LinkedHashMap<UUID, FinancialReportEntry> entries = new LinkedHashMap<>();
+        for (FinancialReportEntry entry : repo.findAllReportEntries()) {
+            entries.put(entry.eventId(), entry);
+        }
+        snapshot.set(new Snapshot(entries));
+    }
+
+    public List<FinancialReportProjection> getReport() {
+        return snapshot.get().report;
+    }
+
+    public int size() {
+        return snapshot.get().entries.size();
+    }
+
+    /**
+     * Records the event's name, balance and currency as they are when the current
+     * transaction commits.
+     */
+    public void eventChanged(FundraisingEvent event) {
+        TransactionHooks.afterCommit(() -> {
+            FinancialReportEntry entry = FinancialReportEntry.of(event);
+            update(current -> current.with(List.of(entry)));
+        });
+    }
+
+    /**
+     * Publishes already-read report rows after the current transaction commits, in one snapshot.
+     */
+    public void entriesChanged(Collection<FinancialReportEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> update(current -> current.with(entries)));
+    }
+
+    public void eventRemoved(UUID eventId) {
+        TransactionHooks.afterCommit(() -> update(current -> current.without(eventId)));
+    }
+
+    private void update(UnaryOperator<Snapshot> change) {
+        snapshot.updateAndGet(change);
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new LinkedHashMap<>());
+
+        final Map<UUID, FinancialReportEntry> entries;
+        final List<FinancialReportProjection> report;
+
+        Snapshot(LinkedHashMap<UUID, FinancialReportEntry> entries) {
+            this.entries = entries;
+            this.report = List.copyOf(entries.values());
+        }
+
+        Snapshot with(Collection<FinancialReportEntry> changed) {
+            LinkedHashMap<UUID, FinancialReportEntry> copy = null;
+            for (FinancialReportEntry entry : changed) {
+                FinancialReportEntry cached = entries.get(entry.eventId());
+                // Commits of the same event can finish out of order; never go back to an older version
+                if (cached != null && cached.version() >= entry.version()) {
+                    continue;
+                }
+                if (copy == null) {
+                    copy = new LinkedHashMap<>(entries);
+                }
+                copy.put(entry.eventId(), entry);
+            }
+            return copy == null ? this : new Snapshot(copy);
+        }
+
+        Snapshot without(UUID eventId) {
+            if (!entries.containsKey(eventId)) {
+                return this;
+            }
+            LinkedHashMap<UUID, FinancialReportEntry> copy = new LinkedHashMap<>(entries);
+            copy.remove(eventId);
+            return new Snapshot(copy);
+        }
+    }
+}
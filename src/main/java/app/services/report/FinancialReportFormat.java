@@ -0,0 +1,30 @@
+package app.services.report;
+
+import org.springframework.http.MediaType;
+
+public enum FinancialReportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    FinancialReportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    // CSV only when the client asks for it; NDJSON otherwise
+    public static FinancialReportFormat fromAcceptHeader(String accept) {
+        if (accept != null) {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.isCompatibleWith(CSV.mediaType) && !mediaType.isWildcardType()) {
+                    return CSV;
+                }
+            }
+        }
+        return NDJSON;
+    }
+}
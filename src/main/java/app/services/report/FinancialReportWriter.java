@@ -0,0 +1,46 @@
+package app.services.report;
+
+import app.models.FinancialReportProjection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes financial report rows one at a time. The first row is flushed immediately so the
+ * client sees data right away; after that output is flushed every {@code FLUSH_EVERY} rows.
+ */
+public abstract class FinancialReportWriter implements Consumer<FinancialReportProjection>, Closeable {
+    private static final int FLUSH_EVERY = 1000;
+
+    private long rows;
+
+    public static FinancialReportWriter create(FinancialReportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonFinancialReportWriter(out);
+            case CSV -> new CsvFinancialReportWriter(out);
+        };
+    }
+
+    protected abstract void writeRow(FinancialReportProjection row) throws IOException;
+
+    protected abstract void flush() throws IOException;
+
+    @Override
+    public void accept(FinancialReportProjection row) {
+        try {
+            writeRow(row);
+            if (++rows == 1 || rows % FLUSH_EVERY == 0) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,51 @@
+package app.services.report;
+
+import app.models.FinancialReportProjection;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+class NdjsonFinancialReportWriter extends FinancialReportWriter {
+    // The response stream belongs to the servlet container; only flush it
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final JsonGenerator generator;
+
+    NdjsonFinancialReportWriter(OutputStream out) throws IOException {
+        this.generator = JSON.createGenerator(out, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    protected void writeRow(FinancialReportProjection row) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", row.getName());
+        if (row.getAccountBalance() == null) {
+            generator.writeNullField("accountBalance");
+        } else {
+            generator.writeNumberField("accountBalance", row.getAccountBalance());
+        }
+        generator.writeStringField("currency", row.getCurrency());
+        generator.writeEndObject();
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (getRows() > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
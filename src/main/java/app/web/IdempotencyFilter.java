@@ -0,0 +1,203 @@
+package app.web;
+
+import app.dto.IdempotentResponse;
+import app.repositories.IdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Honors the {@code Idempotency-Key} header on deposits ({@code PATCH /api/boxes/{id}/money})
+ * and single transfers ({@code POST /api/events/{id}/transfer}). The first response to a key
+ * is stored; a retry with the same key gets that response back, marked with
+ * {@code Idempotent-Replayed: true}, and never reaches the controller.
+ *
+ * <p>Responses are looked up in a bounded in-memory cache first and in the
+ * {@code idempotency_keys} table after that, and both expire after the TTL. Only successful
+ * responses are stored: a failed request changed nothing and can be retried with the same
+ * key. A retry that arrives while the first request with its key is still running gets 409.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    // Matches the body column; larger responses are passed through unstored
+    static final int MAX_STORED_BODY = 65_536;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+    private static final List<Endpoint> ENDPOINTS = List.of(
+            new Endpoint("PATCH", Pattern.compile("/api/boxes/[^/]+/money")),
+            new Endpoint("POST", Pattern.compile("/api/events/[^/]+/transfer")));
+
+    private final IdempotencyKeyRepository repo;
+    private final Cache<String, IdempotentResponse> responses;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Duration ttl;
+    private final Clock clock;
+    private volatile Instant nextPurge;
+
+    public IdempotencyFilter(IdempotencyKeyRepository repo, long maxCachedResponses, Duration ttl, Clock clock) {
+        this.repo = repo;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxCachedResponses)
+                .expireAfterWrite(ttl)
+                .build();
+        this.nextPurge = clock.instant();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(IDEMPOTENCY_KEY) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Endpoint endpoint : ENDPOINTS) {
+            if (endpoint.method().equals(request.getMethod()) && endpoint.path().matcher(path).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        String fingerprint = fingerprint(request);
+
+        IdempotentResponse stored = lookup(key);
+        if (stored != null) {
+            replay(stored, fingerprint, response);
+            return;
+        }
+        if (!inFlight.add(key)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_CONFLICT, "A request with this " + IDEMPOTENCY_KEY + " is in progress");
+            return;
+        }
+        try {
+            // The first request may have finished between the lookup and the claim
+            stored = responses.getIfPresent(key);
+            if (stored != null) {
+                replay(stored, fingerprint, response);
+                return;
+            }
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, wrapper);
+            byte[] body = wrapper.getContentAsByteArray();
+            wrapper.copyBodyToResponse();
+            if (isStorable(wrapper.getStatus(), body)) {
+                store(key, new IdempotentResponse(fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+                        body, clock.instant()));
+            }
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private IdempotentResponse lookup(String key) {
+        IdempotentResponse cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Optional<IdempotentResponse> persisted = repo.find(key, clock.instant().minus(ttl));
+            persisted.ifPresent(response -> responses.put(key, response));
+            return persisted.orElse(null);
+        } catch (RuntimeException e) {
+            // Keep serving: the in-memory cache still covers retries to this instance
+            log.warn("Idempotency key lookup failed", e);
+            return null;
+        }
+    }
+
+    private void store(String key, IdempotentResponse response) {
+        responses.put(key, response);
+        try {
+            if (!repo.insert(key, response)) {
+                // Another instance ran the same key concurrently; retries get its response
+                repo.find(key, clock.instant().minus(ttl)).ifPresent(first -> responses.put(key, first));
+            }
+            purgeExpired();
+        } catch (RuntimeException e) {
+            log.warn("Could not persist idempotent response", e);
+        }
+    }
+
+    // At most once per TTL, on whichever request gets here first
+    private void purgeExpired() {
+        Instant now = clock.instant();
+        if (now.isBefore(nextPurge)) {
+            return;
+        }
+        nextPurge = now.plus(ttl);
+        repo.deleteCreatedBefore(now.minus(ttl));
+    }
+
+    private static void replay(IdempotentResponse stored, String fingerprint, HttpServletResponse response)
+            throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            response.sendError(422, IDEMPOTENCY_KEY + " was already used for a different request");
+            return;
+        }
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static boolean isStorable(int status, byte[] body) {
+        return status >= 200 && status < 300 && body.length <= MAX_STORED_BODY;
+    }
+
+    // SHA-256 of method, path and query string: what a key is bound to
+    public static String fingerprint(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String target = request.getMethod() + ' ' + request.getRequestURI() + (query == null ? "" : '?' + query);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(target.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public long getCachedResponseCount() {
+        return responses.estimatedSize();
+    }
+
+    private record Endpoint(String method, Pattern path) {
+    }
+}
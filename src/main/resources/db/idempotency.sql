@@ -0,0 +1,15 @@
+-- Responses stored under an Idempotency-Key header. Runs on every start in every profile, so
+-- each statement is idempotent. Rows expire after charity.idempotency.ttl and are purged.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(255)             NOT NULL,
+    -- SHA-256 of method, path and query string of the request the key was first used for
+    fingerprint     VARCHAR(64)              NOT NULL,
+    status          INT                      NOT NULL,
+    content_type    VARCHAR(255),
+    body            VARBINARY(65536)         NOT NULL,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS ix_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,8 @@
+-- Apply position of each deposit journal (charity.deposits.mode=journal). Runs on every start
+-- in every profile, so each statement is idempotent.
+
+CREATE TABLE IF NOT EXISTS deposit_journals (
+    journal_id       UUID   NOT NULL,
+    applied_sequence BIGINT NOT NULL,
+    CONSTRAINT pk_deposit_journals PRIMARY KEY (journal_id)
+);
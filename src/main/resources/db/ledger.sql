@@ -0,0 +1,37 @@
+-- Append-only balance ledger and its snapshots. Runs on every start in every profile, so each
+-- statement is idempotent. There are no foreign keys: history outlives deleted boxes and events.
+
+CREATE TABLE IF NOT EXISTS ledger_entries (
+    sequence      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    entry_type    VARCHAR(16)      NOT NULL,
+    box_id        UUID             NOT NULL,
+    event_id      UUID,
+    currency      VARCHAR(3)       NOT NULL,
+    minor_units   BIGINT           NOT NULL,
+    event_amount  DOUBLE PRECISION,
+    rates_version BIGINT,
+    created_at    TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT pk_ledger_entries PRIMARY KEY (sequence)
+);
+
+-- Tail reads: one box or one event, entries after its snapshot, in sequence order
+CREATE INDEX IF NOT EXISTS ix_ledger_entries_box ON ledger_entries (box_id, sequence);
+CREATE INDEX IF NOT EXISTS ix_ledger_entries_event ON ledger_entries (event_id, sequence);
+
+-- Box balances folded up to and including ledger entry `sequence`
+CREATE TABLE IF NOT EXISTS box_snapshots (
+    box_id      UUID   NOT NULL,
+    sequence    BIGINT NOT NULL,
+    balance_pln BIGINT NOT NULL,
+    balance_eur BIGINT NOT NULL,
+    balance_gbp BIGINT NOT NULL,
+    CONSTRAINT pk_box_snapshots PRIMARY KEY (box_id)
+);
+
+-- Event account balances folded up to and including ledger entry `sequence`
+CREATE TABLE IF NOT EXISTS event_snapshots (
+    event_id        UUID             NOT NULL,
+    sequence        BIGINT           NOT NULL,
+    account_balance DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_event_snapshots PRIMARY KEY (event_id)
+);
@@ -0,0 +1,32 @@
+-- Schema for the production profile. Hibernate only validates it (ddl-auto=validate), so a
+-- mapping change must come with a change here. Every statement is idempotent because the
+-- script runs on each start against the durable database.
+
+CREATE TABLE IF NOT EXISTS fundraising_events (
+    uuid                        UUID             NOT NULL,
+    version                     BIGINT           NOT NULL,
+    name                        VARCHAR(255)     NOT NULL,
+    currency                    VARCHAR(255)     NOT NULL,
+    account_balance             DOUBLE PRECISION NOT NULL,
+    last_transfer_rates_version BIGINT,
+    CONSTRAINT pk_fundraising_events PRIMARY KEY (uuid)
+);
+
+CREATE TABLE IF NOT EXISTS collection_boxes (
+    uuid                 UUID   NOT NULL,
+    version              BIGINT NOT NULL,
+    fundraising_event_id UUID,
+    balance_pln          BIGINT NOT NULL,
+    balance_eur          BIGINT NOT NULL,
+    balance_gbp          BIGINT NOT NULL,
+    CONSTRAINT pk_collection_boxes PRIMARY KEY (uuid),
+    CONSTRAINT fk_collection_boxes_fundraising_event
+        FOREIGN KEY (fundraising_event_id) REFERENCES fundraising_events (uuid)
+);
+
+-- Serves every lookup of an event's boxes: the event detail join, findCollectionBoxIdsByEventId
+-- and the transfer box lock. An event can have many boxes, so it is not unique; databases
+-- created when it was are migrated by dropping the old unique index
+CREATE INDEX IF NOT EXISTS ix_collection_boxes_fundraising_event_id
+    ON collection_boxes (fundraising_event_id, uuid);
+DROP INDEX IF EXISTS ux_collection_boxes_fundraising_event_id;
@@ -0,0 +1,165 @@
+import app.dto.AsyncDepositStatus;
+import app.dto.AsyncDepositStatus.State;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.services.CollectionBoxService;
+import app.services.ingestion.AsyncDepositService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class AsyncDepositServiceTests {
+    @Mock
+    private CollectionBoxService boxService;
+
+    private AsyncDepositService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Workers only run once a test calls start(), so deposits can be queued up front
+        service = new AsyncDepositService(boxService, Executors.newSingleThreadExecutor(), 1, 3, 10,
+                100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    public void submit_ShouldQueueAndTrackDeposit() throws Exception {
+        UUID boxId = UUID.randomUUID();
+
+        AsyncDepositStatus status = service.submit(boxId, "EUR", 12.5).orElseThrow();
+
+        assertEquals(new AsyncDepositStatus(status.trackingId(), boxId, "EUR", 12.5, State.QUEUED, null), status);
+        assertEquals(Optional.of(status), service.getStatus(status.trackingId()));
+        assertEquals(1, service.getStats().queued());
+        verifyNoInteractions(boxService);
+    }
+
+    @Test
+    public void submit_ShouldRefuse_WhenQueueIsFull() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.submit(UUID.randomUUID(), "PLN", 1.0).isPresent());
+        }
+
+        assertTrue(service.submit(UUID.randomUUID(), "PLN", 1.0).isEmpty());
+
+        assertEquals(3, service.getStats().accepted());
+        assertEquals(1, service.getStats().throttled());
+    }
+
+    @Test
+    public void workers_ShouldCoalesceDepositsPerBoxAndCurrency() throws Exception {
+        UUID boxId = UUID.randomUUID();
+        AsyncDepositStatus first = service.submit(boxId, "PLN", 1.5).orElseThrow();
+        AsyncDepositStatus second = service.submit(boxId, "PLN", 2.0).orElseThrow();
+        AsyncDepositStatus other = service.submit(boxId, "EUR", 3.0).orElseThrow();
+        when(boxService.applyDeposits(anyList())).thenReturn(new int[]{1, 1});
+
+        service.start();
+
+        assertEquals(State.APPLIED, awaitDone(first).state());
+        assertEquals(State.APPLIED, awaitDone(second).state());
+        assertEquals(State.APPLIED, awaitDone(other).state());
+        verify(boxService).applyDeposits(List.of(
+                new Deposit(boxId, Currencies.PLN, 350),
+                new Deposit(boxId, Currencies.EUR, 300)));
+        assertEquals(3, service.getStats().applied());
+        assertEquals(1, service.getStats().batches());
+    }
+
+    @Test
+    public void workers_ShouldStartNewIncrement_WhenCoalescedSumWouldOverflow() throws Exception {
+        UUID boxId = UUID.randomUUID();
+        // 5.0E16 PLN is 5.0E18 minor units; two of them do not fit in a long
+        AsyncDepositStatus first = service.submit(boxId, "PLN", 5.0E16).orElseThrow();
+        AsyncDepositStatus second = service.submit(boxId, "PLN", 5.0E16).orElseThrow();
+        AsyncDepositStatus third = service.submit(boxId, "PLN", 1.0).orElseThrow();
+        when(boxService.applyDeposits(anyList())).thenReturn(new int[]{1, 1});
+
+        service.start();
+
+        assertEquals(State.APPLIED, awaitDone(first).state());
+        assertEquals(State.APPLIED, awaitDone(second).state());
+        assertEquals(State.APPLIED, awaitDone(third).state());
+        verify(boxService).applyDeposits(List.of(
+                new Deposit(boxId, Currencies.PLN, 5_000_000_000_000_000_000L),
+                new Deposit(boxId, Currencies.PLN, 5_000_000_000_000_000_100L)));
+    }
+
+    @Test
+    public void workers_ShouldApplyIncrementsOneByOne_WhenBatchFails() throws Exception {
+        UUID good = UUID.randomUUID();
+        UUID bad = UUID.randomUUID();
+        AsyncDepositStatus applied = service.submit(good, "EUR", 1.0).orElseThrow();
+        AsyncDepositStatus failed = service.submit(bad, "PLN", 2.0).orElseThrow();
+        when(boxService.applyDeposits(anyList())).thenAnswer(invocation -> {
+            List<Deposit> deposits = invocation.getArgument(0);
+            if (deposits.stream().anyMatch(deposit -> deposit.boxId().equals(bad))) {
+                throw new IllegalStateException("Numeric value out of range");
+            }
+            return new int[]{1};
+        });
+
+        service.start();
+
+        assertEquals(State.APPLIED, awaitDone(applied).state());
+        assertEquals(State.FAILED, awaitDone(failed).state());
+        verify(boxService).applyDeposits(List.of(new Deposit(good, Currencies.EUR, 100)));
+        assertEquals(1, service.getStats().applied());
+        assertEquals(1, service.getStats().failed());
+    }
+
+    @Test
+    public void workers_ShouldRejectDeposits_ForMissingBox() throws Exception {
+        AsyncDepositStatus status = service.submit(UUID.randomUUID(), "EUR", 1.0).orElseThrow();
+        when(boxService.applyDeposits(anyList())).thenReturn(new int[]{0});
+
+        service.start();
+
+        AsyncDepositStatus done = awaitDone(status);
+        assertEquals(State.REJECTED, done.state());
+        assertNotNull(done.error());
+        assertEquals(1, service.getStats().rejected());
+    }
+
+    @Test
+    public void workers_ShouldMarkBatchFailed_WhenApplyThrows() throws Exception {
+        AsyncDepositStatus first = service.submit(UUID.randomUUID(), "EUR", 1.0).orElseThrow();
+        AsyncDepositStatus second = service.submit(UUID.randomUUID(), "GBP", 2.0).orElseThrow();
+        when(boxService.applyDeposits(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        service.start();
+
+        assertEquals(State.FAILED, awaitDone(first).state());
+        assertEquals(State.FAILED, awaitDone(second).state());
+        assertEquals(2, service.getStats().failed());
+    }
+
+    private AsyncDepositStatus awaitDone(AsyncDepositStatus queued) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            AsyncDepositStatus status = service.getStatus(queued.trackingId()).orElseThrow();
+            if (status.state() != State.QUEUED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Deposit " + queued.trackingId() + " was not applied");
+    }
+}
@@ -0,0 +1,92 @@
+import app.exceptions.collection_box.CollectionBoxDoesntExistException;
+import app.exceptions.collection_box.CollectionBoxException;
+import app.services.concurrency.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyControlTests {
+
+    private static final TransactionOperations NO_TRANSACTION = TransactionOperations.withoutTransaction();
+    private static final List<UUID> KEYS = List.of(UUID.randomUUID());
+
+    @Test
+    public void optimistic_ShouldRetryAfterConflict() {
+        ConcurrencyControl control = new OptimisticConcurrencyControl(NO_TRANSACTION, 3, Duration.ZERO, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        int result = control.<Integer, RuntimeException, RuntimeException, RuntimeException>execute(KEYS, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return 42;
+        });
+
+        assertEquals(42, result);
+        assertEquals(2, attempts.get());
+        ConcurrencyStats stats = control.getStats();
+        assertEquals(1, stats.contentions());
+        assertEquals(1, stats.retries());
+        assertEquals(0, stats.failures());
+    }
+
+    @Test
+    public void optimistic_ShouldGiveUpAfterMaxAttempts() {
+        ConcurrencyControl control = new OptimisticConcurrencyControl(NO_TRANSACTION, 2, Duration.ZERO, Duration.ZERO);
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                control.<Void, RuntimeException, RuntimeException, RuntimeException>execute(KEYS, () -> {
+                    throw new OptimisticLockingFailureException("conflict");
+                }));
+
+        assertEquals(1, control.getStats().failures());
+        assertEquals(1, control.getStats().retries());
+    }
+
+    @Test
+    public void striped_ShouldRethrowCheckedException() {
+        ConcurrencyControl control = new StripedConcurrencyControl(NO_TRANSACTION, 8);
+
+        assertThrows(CollectionBoxDoesntExistException.class, () ->
+                control.<Void, CollectionBoxException, RuntimeException, RuntimeException>execute(KEYS, () -> {
+                    throw new CollectionBoxDoesntExistException();
+                }));
+    }
+
+    @Test
+    public void striped_ShouldSerializeMutationsOnTheSameKey() throws InterruptedException {
+        ConcurrencyControl control = new StripedConcurrencyControl(NO_TRANSACTION, 8);
+        int[] counter = new int[1];
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    control.<Void, RuntimeException, RuntimeException, RuntimeException>execute(KEYS, () -> {
+                        counter[0]++;
+                        return null;
+                    });
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(4000, counter[0]);
+        assertEquals(4000, control.getStats().executions());
+    }
+
+    @Test
+    public void pessimistic_ShouldUseRowLocks() {
+        assertTrue(new PessimisticConcurrencyControl(NO_TRANSACTION).usesRowLocks());
+        assertFalse(new StripedConcurrencyControl(NO_TRANSACTION, 8).usesRowLocks());
+    }
+}
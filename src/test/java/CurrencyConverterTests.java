@@ -1,10 +1,16 @@
 import app.exceptions.arguments.InvalidCurrencyException;
+import app.exceptions.arguments.InvalidExchangeRateException;
+import app.models.Currencies;
+import app.models.ExchangeRates;
 import app.services.CurrencyConverter;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -12,6 +18,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class CurrencyConverterTests {
 
+    @AfterEach
+    public void restoreDefaultRates() {
+        CurrencyConverter.updateExchangeRates(ExchangeRates.defaults());
+    }
+
     private static Stream<Arguments> convertCurrencyArguments() {
         return Stream.of(
                 Arguments.of("EUR", "PLN", 100.0, 450.0),
@@ -44,4 +55,37 @@ public class CurrencyConverterTests {
             CurrencyConverter.convertCurrency(wrongCurrency, toCurrency, amount);
         });
     }
+
+    @Test
+    public void convertCurrency_ByEnum_ShouldMatchStringConversion() throws InvalidCurrencyException {
+        assertEquals(CurrencyConverter.convertCurrency("GBP", "EUR", 100.0),
+                CurrencyConverter.convertCurrency(Currencies.GBP, Currencies.EUR, 100.0));
+    }
+
+    @Test
+    public void updateExchangeRates_ShouldBeUsedByNextConversion()
+            throws InvalidCurrencyException, InvalidExchangeRateException {
+        Map<String, Double> rates = new HashMap<>(ExchangeRates.defaults().getRates());
+        rates.put("EUR_PLN", 4.0);
+
+        CurrencyConverter.updateExchangeRates(ExchangeRates.of(rates));
+
+        assertEquals(400.0, CurrencyConverter.convertCurrency("EUR", "PLN", 100.0));
+    }
+
+    @Test
+    public void exchangeRatesOf_ShouldThrowException_WhenPairIsMissing() {
+        Map<String, Double> rates = new HashMap<>(ExchangeRates.defaults().getRates());
+        rates.remove("GBP_EUR");
+
+        assertThrows(InvalidExchangeRateException.class, () -> ExchangeRates.of(rates));
+    }
+
+    @Test
+    public void exchangeRatesOf_ShouldThrowException_WhenRateIsNotPositive() {
+        Map<String, Double> rates = new HashMap<>(ExchangeRates.defaults().getRates());
+        rates.put("PLN_EUR", 0.0);
+
+        assertThrows(InvalidExchangeRateException.class, () -> ExchangeRates.of(rates));
+    }
 }
@@ -0,0 +1,149 @@
+import app.dto.DepositReceipt;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.repositories.CollectionBoxRepository;
+import app.repositories.DepositJournalRepository;
+import app.services.CollectionBoxTotals;
+import app.services.concurrency.StripedConcurrencyControl;
+import app.services.journal.DepositJournal;
+import app.services.journal.DepositJournalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class DepositJournalServiceTests {
+    @Mock
+    private CollectionBoxRepository boxRepository;
+
+    @Mock
+    private DepositJournalRepository positions;
+
+    @Mock
+    private CollectionBoxTotals totals;
+
+    @TempDir
+    Path directory;
+
+    private DepositJournal journal;
+    private DepositJournalService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        journal = DepositJournal.open(directory, 1024);
+        // Long interval: the tests apply explicitly
+        service = new DepositJournalService(journal, boxRepository, positions,
+                new StripedConcurrencyControl(TransactionOperations.withoutTransaction(), 16), totals,
+                Duration.ofHours(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.stop();
+        journal.close();
+    }
+
+    @Test
+    public void accept_ShouldJournalWithoutTouchingDatabase() throws Exception {
+        UUID boxId = UUID.randomUUID();
+
+        DepositReceipt receipt = service.accept(boxId, "EUR", 12.5);
+
+        assertEquals(new DepositReceipt(boxId, "EUR", 12.5, 1), receipt);
+        assertEquals(new Deposit(boxId, Currencies.EUR, 1_250), journal.read(1, 1).get(0).deposit());
+        verifyNoInteractions(boxRepository, positions, totals);
+    }
+
+    @Test
+    public void start_ShouldReplayDepositsAfterStoredPosition() throws Exception {
+        service.accept(UUID.randomUUID(), "PLN", 1.0);
+        service.accept(UUID.randomUUID(), "PLN", 2.0);
+        service.accept(UUID.randomUUID(), "PLN", 3.0);
+        when(positions.findAppliedSequence(journal.getId())).thenReturn(1L);
+        when(boxRepository.addToBalances(anyList())).thenReturn(new int[]{1, 1});
+
+        service.start();
+
+        verify(boxRepository).addToBalances(List.of(journal.read(2, 1).get(0).deposit(), journal.read(3, 1).get(0).deposit()));
+        verify(positions).saveAppliedSequence(journal.getId(), 3L);
+        assertEquals(0, service.getStats().pending());
+    }
+
+    @Test
+    public void start_ShouldKeepRunning_WhenReplayFails() throws Exception {
+        service.accept(UUID.randomUUID(), "PLN", 1.0);
+        when(boxRepository.addToBalances(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertDoesNotThrow(() -> service.start());
+
+        assertEquals(1, service.getStats().pending());
+    }
+
+    @Test
+    public void applyPending_ShouldSkipRefusedDeposit_AndApplyTheRest() throws Exception {
+        service.accept(UUID.randomUUID(), "PLN", 1.0);
+        service.accept(UUID.randomUUID(), "EUR", 2.0);
+        Deposit refused = journal.read(1, 1).get(0).deposit();
+        when(boxRepository.addToBalances(anyList())).thenAnswer(invocation -> {
+            List<Deposit> deposits = invocation.getArgument(0);
+            if (deposits.contains(refused)) {
+                throw new DataIntegrityViolationException("Numeric value out of range");
+            }
+            return new int[deposits.size()];
+        });
+
+        assertEquals(2, service.applyPending());
+
+        verify(boxRepository).addToBalances(List.of(journal.read(2, 1).get(0).deposit()));
+        verify(positions).saveAppliedSequence(journal.getId(), 1L);
+        verify(positions).saveAppliedSequence(journal.getId(), 2L);
+        assertEquals(2, service.getStats().appliedSequence());
+        assertEquals(0, service.getStats().pending());
+    }
+
+    @Test
+    public void applyPending_ShouldApplyInBatches_AndCountDroppedDeposits() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            service.accept(UUID.randomUUID(), "GBP", 1.0);
+        }
+        when(boxRepository.addToBalances(anyList())).thenReturn(new int[]{1, 0}, new int[]{1});
+
+        assertEquals(3, service.applyPending());
+
+        verify(positions).saveAppliedSequence(journal.getId(), 2L);
+        verify(positions).saveAppliedSequence(journal.getId(), 3L);
+        assertEquals(1, service.getStats().dropped());
+        assertEquals(3, service.getStats().appliedSequence());
+        verify(totals).deposited(anyList(), eq(new int[]{1, 0}));
+        verify(totals).deposited(anyList(), eq(new int[]{1}));
+    }
+
+    @Test
+    public void applyPending_ShouldKeepPosition_WhenDatabaseFails() throws Exception {
+        service.accept(UUID.randomUUID(), "PLN", 1.0);
+        when(boxRepository.addToBalances(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> service.applyPending());
+
+        verify(positions, never()).saveAppliedSequence(any(), anyLong());
+        verifyNoInteractions(totals);
+        assertEquals(1, service.getStats().pending());
+    }
+}
@@ -0,0 +1,178 @@
+import app.models.Currencies;
+import app.models.Deposit;
+import app.services.journal.DepositJournal;
+import app.services.journal.DepositJournal.JournaledDeposit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DepositJournalTests {
+    // Four 32-byte records per segment, so a few appends rotate
+    private static final long SMALL_SEGMENT = 128;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void append_ShouldReturnIncreasingSequences_AndReadThemBack() throws IOException {
+        try (DepositJournal journal = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            Deposit first = deposit(Currencies.PLN, 1_050);
+            Deposit second = deposit(Currencies.GBP, 20);
+
+            assertEquals(1, journal.append(first));
+            assertEquals(2, journal.append(second));
+
+            assertEquals(List.of(new JournaledDeposit(1, first), new JournaledDeposit(2, second)),
+                    journal.read(1, 10));
+            assertEquals(List.of(new JournaledDeposit(2, second)), journal.read(2, 10));
+            assertEquals(2, journal.getLastSequence());
+        }
+    }
+
+    @Test
+    public void append_ShouldRotateSegments_AndReadAcrossThem() throws IOException {
+        try (DepositJournal journal = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            List<Deposit> deposits = appendMany(journal, 10);
+
+            assertEquals(3, journal.getSegmentCount());
+            List<JournaledDeposit> read = journal.read(3, 5);
+            assertEquals(5, read.size());
+            for (int i = 0; i < read.size(); i++) {
+                assertEquals(3 + i, read.get(i).sequence());
+                assertEquals(deposits.get(2 + i), read.get(i).deposit());
+            }
+        }
+    }
+
+    @Test
+    public void open_ShouldRecoverRecordsAndContinueSequence() throws IOException {
+        List<Deposit> deposits;
+        UUID id;
+        try (DepositJournal journal = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            deposits = appendMany(journal, 6);
+            id = journal.getId();
+        }
+
+        try (DepositJournal reopened = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            assertEquals(id, reopened.getId());
+            assertEquals(6, reopened.getLastSequence());
+            assertEquals(deposits.get(5), reopened.read(6, 1).get(0).deposit());
+            assertEquals(7, reopened.append(deposit(Currencies.EUR, 1)));
+        }
+    }
+
+    @Test
+    public void open_ShouldStopAtTornRecord() throws IOException {
+        try (DepositJournal journal = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            appendMany(journal, 3);
+        }
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // Corrupt the amount of the third record, as a crash in the middle of a write would
+            file.seek(2 * 32 + 16);
+            file.writeLong(-1L);
+        }
+
+        try (DepositJournal reopened = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            assertEquals(2, reopened.getLastSequence());
+            assertEquals(2, reopened.read(1, 10).size());
+            assertEquals(3, reopened.append(deposit(Currencies.PLN, 5)));
+        }
+    }
+
+    @Test
+    public void open_ShouldClearRecordsAfterTornRecord() throws IOException {
+        try (DepositJournal journal = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            appendMany(journal, 3);
+        }
+        Path segment = segments().get(0);
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // Torn second record; the third was written but never acknowledged
+            file.seek(32 + 16);
+            file.writeLong(-1L);
+        }
+        try (DepositJournal reopened = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            assertEquals(1, reopened.getLastSequence());
+            assertEquals(2, reopened.append(deposit(Currencies.PLN, 5)));
+        }
+
+        // The stale third record must not reappear behind the new second one
+        try (DepositJournal reopened = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            assertEquals(2, reopened.getLastSequence());
+            assertEquals(3, reopened.append(deposit(Currencies.EUR, 7)));
+        }
+    }
+
+    @Test
+    public void release_ShouldDeleteAppliedSegmentsOnly() throws IOException {
+        try (DepositJournal journal = DepositJournal.open(directory, SMALL_SEGMENT)) {
+            appendMany(journal, 10);
+
+            journal.release(6);
+
+            // Segment 1-4 is applied, 5-8 is not completely, 9-10 is being written
+            assertEquals(2, journal.getSegmentCount());
+            assertEquals(2, segments().size());
+            assertEquals(5, journal.read(1, 10).get(0).sequence());
+        }
+    }
+
+    @Test
+    public void append_ShouldKeepEveryRecord_WhenCalledConcurrently() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        try (DepositJournal journal = DepositJournal.open(directory, 32 * 100)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> appendMany(journal, perThread)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            List<JournaledDeposit> read = journal.read(1, threads * perThread + 1);
+            assertEquals(threads * perThread, read.size());
+            for (int i = 0; i < read.size(); i++) {
+                assertEquals(i + 1, read.get(i).sequence());
+            }
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".journal")).sorted().toList();
+        }
+    }
+
+    private static List<Deposit> appendMany(DepositJournal journal, int count) {
+        List<Deposit> deposits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Deposit deposit = deposit(Currencies.fromOrdinal(i % Currencies.count()), 100 + i);
+            journal.append(deposit);
+            deposits.add(deposit);
+        }
+        return deposits;
+    }
+
+    private static Deposit deposit(Currencies currency, long minorUnits) {
+        return new Deposit(UUID.randomUUID(), currency, minorUnits);
+    }
+}
@@ -0,0 +1,86 @@
+import app.dto.CacheRegionStats;
+import app.models.CollectionBox;
+import app.models.FundraisingEvent;
+import app.repositories.EntityCache;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class EntityCacheTests {
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    private EntityCache entityCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        entityCache = new EntityCache(entityManagerFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void evictAfterWrite_ShouldEvictImmediately_WithoutTransaction() {
+        UUID id = UUID.randomUUID();
+
+        entityCache.evictAfterWrite(CollectionBox.class, List.of(id));
+
+        verify(cache, times(1)).evict(CollectionBox.class, id);
+    }
+
+    @Test
+    public void evictAfterWrite_ShouldEvictAgain_WhenTransactionCompletes() {
+        UUID id = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        entityCache.evictAfterWrite(CollectionBox.class, List.of(id));
+        verify(cache, times(1)).evict(CollectionBox.class, id);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        verify(cache, times(2)).evict(CollectionBox.class, id);
+    }
+
+    @Test
+    public void getStatistics_ShouldReportCountsOfEachRegion() {
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        Statistics statistics = mock(Statistics.class);
+        CacheRegionStatistics regionStats = mock(CacheRegionStatistics.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getDomainDataRegionStatistics(CollectionBox.CACHE_REGION)).thenReturn(regionStats);
+        when(regionStats.getHitCount()).thenReturn(3L);
+        when(regionStats.getMissCount()).thenReturn(2L);
+        when(regionStats.getPutCount()).thenReturn(1L);
+        when(regionStats.getElementCountInMemory()).thenReturn(Long.MIN_VALUE);
+
+        assertEquals(List.of(new CacheRegionStats(CollectionBox.CACHE_REGION, 3, 2, 1)), entityCache.getStatistics());
+        verify(statistics).getDomainDataRegionStatistics(FundraisingEvent.CACHE_REGION);
+    }
+}
@@ -0,0 +1,112 @@
+import app.models.ExchangeRates;
+import app.services.CurrencyConverter;
+import app.services.exchange_rates.ExchangeRateProvider;
+import app.services.exchange_rates.ExchangeRateProviderException;
+import app.services.exchange_rates.ExchangeRateRefresher;
+import app.services.exchange_rates.StaticExchangeRateProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExchangeRateRefresherTests {
+
+    @AfterEach
+    public void restoreDefaultRates() {
+        CurrencyConverter.unpinExchangeRates();
+        CurrencyConverter.updateExchangeRates(ExchangeRates.defaults());
+    }
+
+    @Test
+    public void refresh_ShouldPublishProviderRatesWithNewVersion() throws Exception {
+        Map<String, Double> rates = new HashMap<>(ExchangeRates.defaults().getRates());
+        rates.put("EUR_PLN", 4.0);
+        ExchangeRates fetched = ExchangeRates.of(rates, "test");
+        long previousVersion = CurrencyConverter.getExchangeRates().getVersion();
+        ExchangeRateRefresher refresher = new ExchangeRateRefresher(providerReturning(fetched), Duration.ofMinutes(5));
+
+        refresher.refresh();
+
+        ExchangeRates current = CurrencyConverter.getExchangeRates();
+        assertEquals(400.0, CurrencyConverter.convertCurrency("EUR", "PLN", 100.0));
+        assertTrue(current.getVersion() > previousVersion);
+        assertEquals("test", current.getSource());
+        assertFalse(refresher.isStale());
+    }
+
+    @Test
+    public void refresh_ShouldKeepCurrentRates_WhenProviderFails() {
+        ExchangeRates before = CurrencyConverter.getExchangeRates();
+        ExchangeRateRefresher refresher = new ExchangeRateRefresher(failingProvider(), Duration.ofMinutes(5));
+
+        refresher.refresh();
+
+        assertSame(before, CurrencyConverter.getExchangeRates());
+        assertTrue(refresher.isStale());
+    }
+
+    @Test
+    public void refresh_ShouldKeepPinnedOverride() throws Exception {
+        ExchangeRates override = CurrencyConverter.pinExchangeRates(ratesWithEurPln(5.0, "admin"));
+        ExchangeRateRefresher refresher = new ExchangeRateRefresher(
+                providerReturning(ratesWithEurPln(4.0, "test")), Duration.ofMinutes(5));
+
+        refresher.refresh();
+
+        assertSame(override, CurrencyConverter.getExchangeRates());
+        assertEquals(500.0, CurrencyConverter.convertCurrency("EUR", "PLN", 100.0));
+        assertFalse(refresher.isStale());
+    }
+
+    @Test
+    public void clearOverride_ShouldPublishProviderRates() throws Exception {
+        CurrencyConverter.pinExchangeRates(ratesWithEurPln(5.0, "admin"));
+        ExchangeRateRefresher refresher = new ExchangeRateRefresher(
+                providerReturning(ratesWithEurPln(4.0, "test")), Duration.ofMinutes(5));
+
+        refresher.clearOverride();
+
+        assertFalse(CurrencyConverter.isPinned());
+        assertEquals("test", CurrencyConverter.getExchangeRates().getSource());
+        assertEquals(400.0, CurrencyConverter.convertCurrency("EUR", "PLN", 100.0));
+    }
+
+    @Test
+    public void clearOverride_ShouldRestoreStaticRates() throws Exception {
+        CurrencyConverter.pinExchangeRates(ratesWithEurPln(5.0, "admin"));
+        ExchangeRateRefresher refresher = new ExchangeRateRefresher(new StaticExchangeRateProvider(), Duration.ofMinutes(5));
+
+        refresher.clearOverride();
+
+        assertFalse(CurrencyConverter.isPinned());
+        assertEquals(ExchangeRates.DEFAULT_SOURCE, CurrencyConverter.getExchangeRates().getSource());
+        assertTrue(CurrencyConverter.getExchangeRates().hasSameRates(ExchangeRates.defaults()));
+        assertEquals(450.0, CurrencyConverter.convertCurrency("EUR", "PLN", 100.0));
+    }
+
+    private static ExchangeRates ratesWithEurPln(double rate, String source) throws Exception {
+        Map<String, Double> rates = new HashMap<>(ExchangeRates.defaults().getRates());
+        rates.put("EUR_PLN", rate);
+        return ExchangeRates.of(rates, source);
+    }
+
+    private static ExchangeRateProvider providerReturning(ExchangeRates rates) {
+        return new ExchangeRateProvider() {
+            @Override public String getName() { return "test"; }
+            @Override public ExchangeRates fetchExchangeRates() { return rates; }
+        };
+    }
+
+    private static ExchangeRateProvider failingProvider() {
+        return new ExchangeRateProvider() {
+            @Override public String getName() { return "failing"; }
+            @Override public ExchangeRates fetchExchangeRates() throws ExchangeRateProviderException {
+                throw new ExchangeRateProviderException("unavailable", null);
+            }
+        };
+    }
+}
@@ -0,0 +1,60 @@
+import app.factories.IdGenerators;
+import app.factories.RandomUuidGenerator;
+import app.factories.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdGeneratorTests {
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    public void nextId_ShouldSetVersionAndVariant() {
+        UUID id = new UuidV7Generator().nextId();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    public void nextId_ShouldEmbedTimestamp() {
+        UUID id = new UuidV7Generator(() -> NOW).nextId();
+
+        assertEquals(NOW, UuidV7Generator.timestampMillis(id));
+    }
+
+    @Test
+    public void nextId_ShouldIncrease_WithinOneMillisecond() {
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+        UUID previous = generator.nextId();
+        // Far more than the 12-bit counter holds, so the timestamp has to move forward too
+        for (int i = 0; i < 10_000; i++) {
+            UUID next = generator.nextId();
+            assertTrue(next.getMostSignificantBits() > previous.getMostSignificantBits(),
+                    previous + " should sort before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void nextId_ShouldNotGoBack_WhenClockDoes() {
+        AtomicLong clock = new AtomicLong(NOW);
+        UuidV7Generator generator = new UuidV7Generator(clock::get);
+        UUID before = generator.nextId();
+
+        clock.set(NOW - 1000);
+        UUID after = generator.nextId();
+
+        assertTrue(after.getMostSignificantBits() > before.getMostSignificantBits());
+    }
+
+    @Test
+    public void byName_ShouldSelectGenerator() {
+        assertInstanceOf(UuidV7Generator.class, IdGenerators.byName("uuidv7"));
+        assertInstanceOf(RandomUuidGenerator.class, IdGenerators.byName("random"));
+        assertThrows(IllegalArgumentException.class, () -> IdGenerators.byName("sequence"));
+    }
+}
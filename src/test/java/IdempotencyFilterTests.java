@@ -0,0 +1,165 @@
+import app.dto.IdempotentResponse;
+import app.repositories.IdempotencyKeyRepository;
+import app.web.IdempotencyFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyFilterTests {
+    private static final String DEPOSIT = "/api/boxes/0190a5a4-7c00-7000-8000-000000000001/money";
+    private static final String BALANCE = "{\"boxId\":\"0190a5a4-7c00-7000-8000-000000000001\",\"currency\":\"PLN\",\"balance\":10.0}";
+
+    @Mock
+    private IdempotencyKeyRepository repo;
+
+    private IdempotencyFilter filter;
+    private final AtomicInteger chainCalls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repo.find(any(), any())).thenReturn(Optional.empty());
+        when(repo.insert(any(), any())).thenReturn(true);
+        filter = new IdempotencyFilter(repo, 100, Duration.ofHours(24),
+                Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    public void doFilter_ShouldReplayStoredResponse_WithoutCallingChain() throws Exception {
+        MockHttpServletResponse first = send(deposit("key-1", "currency=PLN&amount=10"), depositChain());
+        MockHttpServletResponse retry = send(deposit("key-1", "currency=PLN&amount=10"), depositChain());
+
+        assertEquals(1, chainCalls.get());
+        assertEquals(200, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED));
+        assertEquals(200, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED));
+        assertEquals(BALANCE, retry.getContentAsString());
+        assertEquals("application/json", retry.getContentType());
+        verify(repo).insert(eq("key-1"), any());
+    }
+
+    @Test
+    public void doFilter_ShouldReplayPersistedResponse_AfterRestart() throws Exception {
+        MockHttpServletRequest request = deposit("key-2", "currency=PLN&amount=10");
+        IdempotentResponse persisted = new IdempotentResponse(IdempotencyFilter.fingerprint(request), 200, "application/json",
+                BALANCE.getBytes(StandardCharsets.UTF_8), Instant.parse("2025-12-31T12:00:00Z"));
+        when(repo.find(eq("key-2"), any())).thenReturn(Optional.of(persisted));
+
+        MockHttpServletResponse response = send(request, depositChain());
+
+        assertEquals(0, chainCalls.get());
+        assertEquals(BALANCE, response.getContentAsString());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED));
+    }
+
+    @Test
+    public void doFilter_ShouldReject_WhenKeyIsReusedForDifferentRequest() throws Exception {
+        send(deposit("key-3", "currency=PLN&amount=10"), depositChain());
+
+        MockHttpServletResponse response = send(deposit("key-3", "currency=PLN&amount=99"), depositChain());
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, chainCalls.get());
+    }
+
+    @Test
+    public void doFilter_ShouldNotStoreFailedResponses() throws Exception {
+        FilterChain failing = (request, response) -> {
+            chainCalls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        send(deposit("key-4", "currency=PLN&amount=10"), failing);
+        send(deposit("key-4", "currency=PLN&amount=10"), failing);
+
+        assertEquals(2, chainCalls.get());
+        verify(repo, never()).insert(any(), any());
+    }
+
+    @Test
+    public void doFilter_ShouldReturnConflict_WhileSameKeyIsInFlight() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+        FilterChain retryDuringFirst = (request, response) -> {
+            chainCalls.incrementAndGet();
+            filter.doFilter(deposit("key-5", "currency=PLN&amount=10"), inner, depositChain());
+        };
+
+        send(deposit("key-5", "currency=PLN&amount=10"), retryDuringFirst);
+
+        assertEquals(409, inner.getStatus());
+        assertEquals("1", inner.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, chainCalls.get());
+    }
+
+    @Test
+    public void doFilter_ShouldPassThrough_WithoutKeyOrOnOtherEndpoints() throws Exception {
+        send(deposit(null, "currency=PLN&amount=10"), depositChain());
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/boxes");
+        get.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "key-6");
+        send(get, depositChain());
+        send(get, depositChain());
+
+        assertEquals(3, chainCalls.get());
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    public void doFilter_ShouldStoreEmptyTransferResponse() throws Exception {
+        FilterChain transfer = (request, response) -> {
+            chainCalls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(204);
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                "/api/events/0190a5a4-7c00-7000-8000-000000000002/transfer");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "key-7");
+
+        send(request, transfer);
+        MockHttpServletResponse retry = send(request, transfer);
+
+        assertEquals(1, chainCalls.get());
+        assertEquals(204, retry.getStatus());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private FilterChain depositChain() {
+        return (request, response) -> {
+            chainCalls.incrementAndGet();
+            response.setContentType("application/json");
+            response.getOutputStream().write(BALANCE.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletRequest deposit(String key, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PATCH", DEPOSIT);
+        request.setQueryString(query);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,153 @@
+import app.dto.LedgerMismatch;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.models.ExchangeRates;
+import app.models.LedgerEntry;
+import app.repositories.CollectionBoxBalanceRepositoryImpl;
+import app.repositories.EntityCache;
+import app.repositories.FundraisingEventTransferRepositoryImpl;
+import app.repositories.LedgerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class LedgerRepositoryTests {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private LedgerRepository ledger;
+    private CollectionBoxBalanceRepositoryImpl balances;
+    private FundraisingEventTransferRepositoryImpl transfers;
+    private UUID eventId;
+    private UUID box1;
+    private UUID box2;
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScripts("db/schema.sql", "db/ledger.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        ledger = new LedgerRepository(jdbc, 500);
+        EntityCache entityCache = mock(EntityCache.class);
+        balances = new CollectionBoxBalanceRepositoryImpl(jdbc, entityCache, ledger, 500);
+        transfers = new FundraisingEventTransferRepositoryImpl(jdbc, entityCache);
+
+        eventId = UUID.randomUUID();
+        jdbc.update("INSERT INTO fundraising_events (uuid, version, name, currency, account_balance) VALUES (?, 0, 'Test Event', 'PLN', 0)",
+                eventId);
+        box1 = insertBox(eventId);
+        box2 = insertBox(eventId);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    private UUID insertBox(UUID eventId) {
+        UUID boxId = UUID.randomUUID();
+        jdbc.update("INSERT INTO collection_boxes (uuid, version, fundraising_event_id, balance_pln, balance_eur, balance_gbp)"
+                + " VALUES (?, 0, ?, 0, 0, 0)", boxId, eventId);
+        return boxId;
+    }
+
+    // Deposits, a transfer of both boxes, more deposits, then box 2 emptied the way unregistering does
+    private void writeHistory() {
+        balances.addToBalances(List.of(
+                new Deposit(box1, Currencies.EUR, 6_000),
+                new Deposit(box2, Currencies.EUR, 4_000),
+                new Deposit(box2, Currencies.PLN, 500)));
+        transfers.transferChunk(List.of(eventId), ExchangeRates.defaults());
+        balances.addToBalances(List.of(
+                new Deposit(box1, Currencies.GBP, 1_234),
+                new Deposit(box2, Currencies.PLN, 700)));
+        ledger.append(List.of(new LedgerEntry(LedgerEntry.Type.EMPTY, box2, null, Currencies.PLN, -700L, null, null)));
+        jdbc.update("UPDATE collection_boxes SET balance_pln = 0, version = version + 1 WHERE uuid = ?", box2);
+    }
+
+    private List<LedgerMismatch> reconcile() {
+        List<LedgerMismatch> mismatches = new ArrayList<>();
+        assertEquals(2, ledger.reconcileBoxes(mismatches));
+        assertEquals(1, ledger.reconcileEvents(mismatches));
+        return mismatches;
+    }
+
+    @Test
+    public void reconcile_ShouldFindNoMismatch_WhenLedgerReplaysToBalances() {
+        writeHistory();
+
+        assertEquals(List.of(), reconcile());
+    }
+
+    @Test
+    public void snapshots_ShouldEqualProjectedBalances() {
+        writeHistory();
+
+        assertEquals(2, ledger.snapshotBoxes());
+        assertEquals(1, ledger.snapshotEvents());
+
+        Map<String, Object> box1Snapshot = jdbc.queryForMap("SELECT * FROM box_snapshots WHERE box_id = ?", box1);
+        assertEquals(0L, box1Snapshot.get("BALANCE_PLN"));
+        assertEquals(0L, box1Snapshot.get("BALANCE_EUR"));
+        assertEquals(1_234L, box1Snapshot.get("BALANCE_GBP"));
+        Map<String, Object> box2Snapshot = jdbc.queryForMap("SELECT * FROM box_snapshots WHERE box_id = ?", box2);
+        assertEquals(0L, box2Snapshot.get("BALANCE_PLN"));
+        assertEquals(0L, box2Snapshot.get("BALANCE_EUR"));
+        assertEquals(jdbc.queryForObject("SELECT account_balance FROM fundraising_events WHERE uuid = ?", Double.class, eventId),
+                jdbc.queryForObject("SELECT account_balance FROM event_snapshots WHERE event_id = ?", Double.class, eventId));
+        assertEquals(List.of(), reconcile());
+    }
+
+    @Test
+    public void reconcile_ShouldReplayTailAfterSnapshot() {
+        balances.addToBalances(List.of(new Deposit(box1, Currencies.EUR, 6_000)));
+        ledger.snapshotBoxes();
+
+        writeHistory();
+
+        assertEquals(List.of(), reconcile());
+        assertEquals(2, ledger.snapshotBoxes());
+        assertEquals(0, ledger.snapshotBoxes());
+        assertEquals(List.of(), reconcile());
+    }
+
+    @Test
+    public void reconcile_ShouldReportMismatch_WhenBoxBalanceIsTampered() {
+        writeHistory();
+        ledger.snapshotBoxes();
+        jdbc.update("UPDATE collection_boxes SET balance_gbp = balance_gbp + 1 WHERE uuid = ?", box1);
+
+        List<LedgerMismatch> mismatches = reconcile();
+
+        assertEquals(List.of(new LedgerMismatch(LedgerMismatch.BOX, box1, "GBP", 12.34, 12.35)), mismatches);
+    }
+
+    @Test
+    public void reconcile_ShouldReportMismatch_WhenEventBalanceIsTampered() {
+        writeHistory();
+        ledger.snapshotEvents();
+        jdbc.update("UPDATE fundraising_events SET account_balance = account_balance + 0.01 WHERE uuid = ?", eventId);
+
+        List<LedgerMismatch> mismatches = reconcile();
+
+        assertEquals(1, mismatches.size());
+        assertEquals(LedgerMismatch.EVENT, mismatches.get(0).kind());
+        assertEquals(eventId, mismatches.get(0).id());
+        assertEquals(5.0 + 450.0, mismatches.get(0).ledger());
+    }
+}
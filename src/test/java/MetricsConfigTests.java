@@ -0,0 +1,30 @@
+import app.config.MetricsConfig;
+import app.services.concurrency.ConcurrencyControl;
+import app.services.concurrency.StripedConcurrencyControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsConfigTests {
+
+    @Test
+    public void concurrencyMetrics_ShouldFollowConcurrencyStats() {
+        ConcurrencyControl concurrency = new StripedConcurrencyControl(TransactionOperations.withoutTransaction(), 4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MetricsConfig().concurrencyMetrics(concurrency).bindTo(registry);
+
+        concurrency.<Void, RuntimeException, RuntimeException, RuntimeException>execute(
+                List.of(UUID.randomUUID()), () -> null);
+
+        double executions = registry.get("charity.concurrency.executions")
+                .tag("strategy", "striped")
+                .functionCounter()
+                .count();
+        assertEquals(1.0, executions);
+    }
+}
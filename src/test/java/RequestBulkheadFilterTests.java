@@ -0,0 +1,58 @@
+import app.web.RequestBulkheadFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestBulkheadFilterTests {
+
+    @Test
+    public void doFilter_ShouldRejectRequestsOverTheLimit() throws Exception {
+        RequestBulkheadFilter filter = new RequestBulkheadFilter(1, Duration.ZERO);
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        // The second request arrives while the first still holds the only permit
+        filter.doFilter(new MockHttpServletRequest(), outer,
+                (request, response) -> filter.doFilter(new MockHttpServletRequest(), inner, (a, b) -> {}));
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, inner.getStatus());
+        assertEquals("1", inner.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    public void doFilter_ShouldHoldPermitUntilAsyncCompletes() throws Exception {
+        RequestBulkheadFilter filter = new RequestBulkheadFilter(1, Duration.ZERO);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(0, filter.getAvailablePermits());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), rejected, (a, b) -> {});
+        assertEquals(503, rejected.getStatus());
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertEquals(1, filter.getAvailablePermits());
+    }
+
+    @Test
+    public void doFilter_ShouldReleasePermit_WhenChainThrows() {
+        RequestBulkheadFilter filter = new RequestBulkheadFilter(1, Duration.ZERO);
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(
+                new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> { throw new IllegalStateException("boom"); }));
+
+        assertEquals(1, filter.getAvailablePermits());
+    }
+}
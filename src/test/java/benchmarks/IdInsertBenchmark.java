@@ -0,0 +1,109 @@
+package benchmarks;
+
+import app.factories.IdGenerator;
+import app.factories.RandomUuidGenerator;
+import app.factories.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Insert rate and primary key storage for UUIDv7 against random UUIDs. Each generator fills its
+ * own file-backed H2 database with a table shaped like collection_boxes. Not part of the
+ * regular test run:
+ *
+ * <pre>
+ * mvn test -Dtest=IdInsertBenchmark -Dbenchmark.rows=5000000
+ * </pre>
+ *
+ * The last-10% rate shows how inserts slow down once the index no longer fits in cache.
+ */
+public class IdInsertBenchmark {
+    private static final int BATCH = 1000;
+
+    private final int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+
+    @Test
+    public void compareIdGenerators() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (IdGenerator generator : List.of(new RandomUuidGenerator(), new UuidV7Generator())) {
+            lines.add(run(generator));
+        }
+        System.out.println();
+        System.out.printf("%-8s %10s %14s %16s %14s %12s%n",
+                "ids", "rows", "rows/s", "last 10% rows/s", "table MB", "file MB");
+        lines.forEach(System.out::println);
+    }
+
+    private String run(IdGenerator generator) throws SQLException, IOException {
+        Path directory = Files.createTempDirectory("ids-" + generator.getName());
+        String url = "jdbc:h2:file:" + directory.resolve("db") + ";DB_CLOSE_ON_EXIT=FALSE";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE collection_boxes (uuid UUID PRIMARY KEY, version BIGINT NOT NULL,"
+                        + " balance_pln BIGINT NOT NULL, balance_eur BIGINT NOT NULL, balance_gbp BIGINT NOT NULL)");
+            }
+            connection.setAutoCommit(false);
+
+            long started = System.nanoTime();
+            long tailStarted = started;
+            int tailFrom = rows - rows / 10;
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO collection_boxes VALUES (?, 0, 0, 0, 0)")) {
+                for (int row = 0; row < rows; row++) {
+                    if (row == tailFrom) {
+                        tailStarted = System.nanoTime();
+                    }
+                    insert.setObject(1, generator.nextId());
+                    insert.addBatch();
+                    if ((row + 1) % BATCH == 0 || row == rows - 1) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            long finished = System.nanoTime();
+
+            long tableBytes;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CHECKPOINT SYNC");
+                try (ResultSet result = statement.executeQuery("SELECT DISK_SPACE_USED('COLLECTION_BOXES')")) {
+                    result.next();
+                    tableBytes = result.getLong(1);
+                }
+                statement.execute("SHUTDOWN");
+            }
+            long fileBytes = sizeOf(directory);
+            return String.format("%-8s %10d %14.0f %16.0f %14.1f %12.1f",
+                    generator.getName(), rows,
+                    rows / ((finished - started) / 1e9),
+                    (rows - tailFrom) / ((finished - tailStarted) / 1e9),
+                    tableBytes / 1e6, fileBytes / 1e6);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package benchmarks;
+
+import app.Main;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Runs the same API workload against the default in-memory setup and the {@code production}
+ * profile (file database, validated schema, tuned pool and batching). The phases are: create
+ * boxes and events, assign them, deposit, read events and transfer everything. Not part of
+ * the regular test run:
+ *
+ * <pre>
+ * mvn test -Dtest=PersistenceProfileBenchmark -Dbenchmark.boxes=5000 -Dbenchmark.clients=32
+ * </pre>
+ *
+ * The default setup also prints every statement, as it does when run locally.
+ */
+public class PersistenceProfileBenchmark {
+    private static final Pattern UUID_FIELD = Pattern.compile("\"uuid\":\"([0-9a-f-]{36})\"");
+
+    private final int boxes = Integer.getInteger("benchmark.boxes", 2_000);
+    private final int depositsPerBox = Integer.getInteger("benchmark.deposits-per-box", 10);
+    private final int clients = Integer.getInteger("benchmark.clients", 32);
+
+    @Test
+    public void compareProfiles() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (String profile : List.of("default", "production")) {
+            rows.addAll(run(profile));
+        }
+        System.out.println();
+        System.out.printf("%-12s %-14s %10s %10s %12s%n", "profile", "phase", "ops", "ms", "ops/s");
+        rows.forEach(System.out::println);
+    }
+
+    private List<String> run(String profile) throws Exception {
+        Path dataDirectory = Files.createTempDirectory("charity-data");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Main.class)
+                .properties("server.port=0", "charity.data-dir=" + dataDirectory);
+        if (!profile.equals("default")) {
+            builder.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api";
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            String[] boxIds = new String[boxes];
+            String[] eventIds = new String[boxes];
+            List<String> rows = new ArrayList<>();
+            rows.add(phase(profile, "create boxes", boxes, i ->
+                    boxIds[i] = uuid(send(http, "POST", base + "/boxes"))));
+            rows.add(phase(profile, "create events", boxes, i ->
+                    eventIds[i] = uuid(send(http, "POST", base + "/events?name=Event-" + i + "&currency=PLN"))));
+            rows.add(phase(profile, "assign", boxes, i ->
+                    send(http, "PATCH", base + "/events/" + eventIds[i] + "/boxes/" + boxIds[i])));
+            rows.add(phase(profile, "deposit", boxes * depositsPerBox, i ->
+                    send(http, "PATCH", base + "/boxes/" + boxIds[i % boxes] + "/money?currency=EUR&amount=1")));
+            rows.add(phase(profile, "get event", boxes, i ->
+                    send(http, "GET", base + "/events/" + eventIds[i])));
+            rows.add(phase(profile, "transfer all", 1, i ->
+                    send(http, "POST", base + "/events/transfer-all")));
+            return rows;
+        } finally {
+            delete(dataDirectory);
+        }
+    }
+
+    // Runs operations 0..count-1 on the configured number of concurrent clients
+    private String phase(String profile, String name, int count, Operation operation) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Void>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < Math.min(clients, count); c++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        operation.run(i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        return String.format("%-12s %-14s %10d %10.0f %12.0f", profile, name, count, seconds * 1000, count / seconds);
+    }
+
+    private static String send(HttpClient http, String method, String uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(method + " " + uri + " -> " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static String uuid(String body) {
+        Matcher matcher = UUID_FIELD.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private interface Operation {
+        void run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,167 @@
+package benchmarks;
+
+import app.Main;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deposit load test comparing platform-thread Tomcat with the {@code virtual-threads} profile.
+ * Each run starts the application on a random port, registers a few boxes, and has N clients
+ * deposit in a closed loop for a fixed duration. Not part of the regular test run:
+ *
+ * <pre>
+ * mvn test -Dtest=VirtualThreadLoadBenchmark -Dbenchmark.clients=1000,10000 -Dbenchmark.duration=PT30S
+ * </pre>
+ *
+ * Both modes use the same connection pool size, so the comparison isolates the threading model.
+ * 10k clients need a file descriptor limit above 20k ({@code ulimit -n}).
+ */
+public class VirtualThreadLoadBenchmark {
+    private static final Pattern UUID_FIELD = Pattern.compile("\"uuid\":\"([0-9a-f-]{36})\"");
+    private static final int BOXES = 100;
+
+    private final int[] clientCounts = Arrays.stream(System.getProperty("benchmark.clients", "1000,10000").split(","))
+            .mapToInt(count -> Integer.parseInt(count.trim()))
+            .toArray();
+    private final Duration duration = Duration.parse(System.getProperty("benchmark.duration", "PT20S"));
+    private final Duration warmup = Duration.parse(System.getProperty("benchmark.warmup", "PT5S"));
+
+    @Test
+    public void compareThreadingModes() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual-threads")) {
+            for (int clients : clientCounts) {
+                rows.add(run(mode, clients));
+            }
+        }
+        System.out.println();
+        System.out.printf("%-16s %8s %12s %10s %10s %10s %10s%n",
+                "mode", "clients", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        rows.forEach(System.out::println);
+    }
+
+    private String run(String mode, int clients) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Main.class)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.hikari.maximum-pool-size=40",
+                        "server.tomcat.max-connections=" + (clients + 1000),
+                        "server.tomcat.accept-count=" + clients);
+        if (!mode.equals("platform")) {
+            builder.profiles(mode);
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/boxes";
+            HttpClient http = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            List<String> boxes = new ArrayList<>(BOXES);
+            for (int i = 0; i < BOXES; i++) {
+                String body = http.send(HttpRequest.newBuilder(URI.create(base))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString()).body();
+                Matcher matcher = UUID_FIELD.matcher(body);
+                if (!matcher.find()) {
+                    throw new IllegalStateException("Unexpected response: " + body);
+                }
+                boxes.add(matcher.group(1));
+            }
+
+            load(http, base, boxes, clients, warmup);
+            Result result = load(http, base, boxes, clients, duration);
+            return String.format("%-16s %8d %12.0f %10d %10.1f %10.1f %10.1f",
+                    mode, clients, result.count() / (duration.toNanos() / 1e9), result.errors(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+        }
+    }
+
+    private Result load(HttpClient http, String base, List<String> boxes, int clients, Duration length)
+            throws Exception {
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<Result>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                URI uri = URI.create(base + "/" + boxes.get(c % boxes.size()) + "/money?currency=PLN&amount=1");
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                        .timeout(Duration.ofSeconds(30))
+                        .build();
+                futures.add(executor.submit(() -> client(http, request, deadline)));
+            }
+            List<Result> results = new ArrayList<>(clients);
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return Result.merge(results);
+        }
+    }
+
+    private static Result client(HttpClient http, HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                    errors++;
+                }
+            } catch (Exception e) {
+                errors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return new Result(latencies, count, errors);
+    }
+
+    private record Result(long[] latencies, int count, long errors) {
+
+        static Result merge(List<Result> results) {
+            int count = 0;
+            long errors = 0;
+            for (Result result : results) {
+                count += result.count;
+                errors += result.errors;
+            }
+            long[] merged = new long[count];
+            int position = 0;
+            for (Result result : results) {
+                System.arraycopy(result.latencies, 0, merged, position, result.count);
+                position += result.count;
+            }
+            Arrays.sort(merged);
+            return new Result(merged, count, errors);
+        }
+
+        // Latencies are sorted by merge()
+        double percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(count - 1, Math.ceil(p * count) - 1);
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package collection_box_tests;
+
+import app.controllers.AsyncDepositController;
+import app.dto.AsyncDepositStatus;
+import app.dto.AsyncDepositStatus.State;
+import app.services.ingestion.AsyncDepositService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncDepositControllerTests {
+
+    @Mock
+    private AsyncDepositService service;
+
+    private AsyncDepositController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AsyncDepositController(service, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void putMoneyAsync_ShouldReturnAccepted_WhenQueued() throws Exception {
+        UUID boxId = UUID.randomUUID();
+        AsyncDepositStatus status = new AsyncDepositStatus(UUID.randomUUID(), boxId, "PLN", 10.0, State.QUEUED, null);
+        when(service.submit(boxId, "PLN", 10.0)).thenReturn(Optional.of(status));
+
+        ResponseEntity<AsyncDepositStatus> response = controller.putMoneyAsync(boxId, "PLN", 10.0);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(status, response.getBody());
+    }
+
+    @Test
+    void putMoneyAsync_ShouldReturnTooManyRequests_WhenQueueIsFull() throws Exception {
+        UUID boxId = UUID.randomUUID();
+        when(service.submit(boxId, "PLN", 10.0)).thenReturn(Optional.empty());
+
+        ResponseEntity<AsyncDepositStatus> response = controller.putMoneyAsync(boxId, "PLN", 10.0);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void getStatus_ShouldReturnNotFound_WhenUnknown() {
+        UUID trackingId = UUID.randomUUID();
+        when(service.getStatus(trackingId)).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, controller.getStatus(trackingId).getStatusCode());
+    }
+}
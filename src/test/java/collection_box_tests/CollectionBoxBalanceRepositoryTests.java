@@ -0,0 +1,126 @@
+package collection_box_tests;
+
+import app.exceptions.arguments.InvalidAmountException;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.repositories.CollectionBoxBalanceRepository;
+import app.repositories.CollectionBoxBalanceRepositoryImpl;
+import app.repositories.EntityCache;
+import app.repositories.LedgerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+public class CollectionBoxBalanceRepositoryTests {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private CollectionBoxBalanceRepository repo;
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScripts("db/schema.sql", "db/ledger.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        repo = new CollectionBoxBalanceRepositoryImpl(jdbc, mock(EntityCache.class), new LedgerRepository(jdbc, 500), 500);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    private UUID insertBox(long balancePln) {
+        UUID boxId = UUID.randomUUID();
+        jdbc.update("INSERT INTO collection_boxes (uuid, version, balance_pln, balance_eur, balance_gbp) VALUES (?, 0, ?, 0, 0)",
+                boxId, balancePln);
+        return boxId;
+    }
+
+    private long balancePln(UUID boxId) {
+        return jdbc.queryForObject("SELECT balance_pln FROM collection_boxes WHERE uuid = ?", Long.class, boxId);
+    }
+
+    @Test
+    public void addToBalance_ShouldReturnNewBalance() throws InvalidAmountException {
+        UUID boxId = insertBox(100);
+
+        assertEquals(OptionalLong.of(150), repo.addToBalance(new Deposit(boxId, Currencies.PLN, 50)));
+        assertEquals(150, balancePln(boxId));
+    }
+
+    @Test
+    public void addToBalance_ShouldThrowInvalidAmountException_WhenBalanceWouldOverflow() {
+        UUID boxId = insertBox(Long.MAX_VALUE - 10);
+
+        assertThrows(InvalidAmountException.class, () -> repo.addToBalance(new Deposit(boxId, Currencies.PLN, 11)));
+        assertEquals(Long.MAX_VALUE - 10, balancePln(boxId));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM ledger_entries", Integer.class));
+    }
+
+    @Test
+    public void addToBalance_ShouldReturnEmpty_WhenBoxDoesNotExist() throws InvalidAmountException {
+        assertEquals(OptionalLong.empty(), repo.addToBalance(new Deposit(UUID.randomUUID(), Currencies.PLN, 10)));
+    }
+
+    @Test
+    public void addToBalances_ShouldApplyEachDeposit_WhenBalancesFit() {
+        UUID boxId = insertBox(100);
+
+        int[] counts = repo.addToBalances(List.of(
+                new Deposit(boxId, Currencies.PLN, 50),
+                new Deposit(boxId, Currencies.PLN, 25)));
+
+        assertArrayEquals(new int[]{1, 1}, counts);
+        assertEquals(175, balancePln(boxId));
+    }
+
+    @Test
+    public void addToBalances_ShouldReportOverflow_AndApplyTheRest_WhenBalanceWouldOverflow() {
+        UUID fullBox = insertBox(Long.MAX_VALUE - 10);
+        UUID otherBox = insertBox(0);
+
+        int[] counts = repo.addToBalances(List.of(
+                new Deposit(fullBox, Currencies.PLN, 11),
+                new Deposit(otherBox, Currencies.PLN, 11),
+                new Deposit(fullBox, Currencies.EUR, 5)));
+
+        assertArrayEquals(new int[]{CollectionBoxBalanceRepository.OVERFLOW, 1, 1}, counts);
+        assertEquals(Long.MAX_VALUE - 10, balancePln(fullBox));
+        assertEquals(11, balancePln(otherBox));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM ledger_entries", Integer.class));
+    }
+
+    @Test
+    public void addToBalances_ShouldApplyDeposit_WhenBalanceReachesMaximumExactly() {
+        UUID boxId = insertBox(Long.MAX_VALUE - 10);
+
+        int[] counts = repo.addToBalances(List.of(new Deposit(boxId, Currencies.PLN, 10)));
+
+        assertArrayEquals(new int[]{1}, counts);
+        assertEquals(Long.MAX_VALUE, balancePln(boxId));
+    }
+
+    @Test
+    public void addToBalances_ShouldReportZero_WhenBoxDoesNotExist() {
+        int[] counts = repo.addToBalances(List.of(new Deposit(UUID.randomUUID(), Currencies.PLN, 10)));
+
+        assertArrayEquals(new int[]{0}, counts);
+    }
+}
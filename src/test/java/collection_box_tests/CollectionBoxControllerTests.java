@@ -1,11 +1,20 @@
 package collection_box_tests;
 
 import app.controllers.CollectionBoxController;
+import app.dto.BatchDepositResponse;
+import app.dto.BoxBalance;
+import app.dto.BoxTotals;
+import app.dto.CollectionBoxResponse;
+import app.dto.DepositReceipt;
+import app.dto.DepositRequest;
+import app.dto.DepositResult;
+import app.dto.KeysetPage;
 import app.exceptions.arguments.*;
 import app.exceptions.collection_box.*;
 import app.factories.CollectionBoxFactory;
 import app.models.CollectionBox;
 import app.services.CollectionBoxService;
+import app.services.journal.DepositJournalService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,9 +23,14 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -46,32 +60,43 @@ class CollectionBoxControllerTests {
     void create_ShouldReturnNewBox() {
         when(service.registerBox()).thenReturn(sampleBox);
 
-        CollectionBox result = controller.createBox();
+        CollectionBoxResponse result = controller.createBox();
 
-        assertSame(sampleBox, result);
-        assertEquals(sampleBox.getUuid(), result.getUuid());
+        assertEquals(sampleBox.getUuid(), result.uuid());
+        assertTrue(result.empty());
+        assertFalse(result.assignedToFundraisingEvent());
         verify(service).registerBox();
     }
 
     @Test
-    void getAll_ShouldReturnListOfBoxes() {
-        List<CollectionBox> boxes = Collections.singletonList(sampleBox);
-        when(service.listAll()).thenReturn(boxes);
+    void getAll_ShouldReturnPageOfBoxes() throws ArgumentsException {
+        KeysetPage<CollectionBoxResponse> page =
+                new KeysetPage<>(Collections.singletonList(CollectionBoxResponse.of(sampleBox)), null);
+        when(service.listPage(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(page);
 
-        List<CollectionBox> result = controller.getAll();
+        KeysetPage<CollectionBoxResponse> result = controller.getAll(null, KeysetPage.DEFAULT_LIMIT);
 
-        assertEquals(boxes, result);
-        verify(service).listAll();
+        assertSame(page, result);
+        verify(service).listPage(null, KeysetPage.DEFAULT_LIMIT);
     }
 
     @Test
-    void getAll_ShouldReturnEmptyList_WhenNoBoxesExist() {
-        when(service.listAll()).thenReturn(Collections.emptyList());
+    void getTotals_ShouldReturnTotalsFromService() {
+        BoxTotals totals = new BoxTotals(Map.of("PLN", 100.0, "EUR", 0.0, "GBP", 2.5));
+        when(service.getTotals()).thenReturn(totals);
 
-        List<CollectionBox> result = controller.getAll();
+        assertSame(totals, controller.getTotals());
+    }
+
+    @Test
+    void getAll_ShouldReturnEmptyPage_WhenNoBoxesExist() throws ArgumentsException {
+        when(service.listPage(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(Collections.emptyList(), null));
+
+        KeysetPage<CollectionBoxResponse> result = controller.getAll(null, KeysetPage.DEFAULT_LIMIT);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.items().isEmpty());
+        assertNull(result.nextCursor());
     }
 
 
@@ -96,28 +121,47 @@ class CollectionBoxControllerTests {
     }
 
     @Test
-    void putMoney_ShouldReturnUpdatedBox() throws CollectionBoxException, ArgumentsException {
+    void putMoney_ShouldReturnNewBalance() throws CollectionBoxException, ArgumentsException {
         UUID boxId = sampleBox.getUuid();
+        BoxBalance balance = new BoxBalance(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT);
 
-        when(service.putMoney(boxId,  CORRECT_CURRENCY, CORRECT_AMOUNT)).thenReturn(sampleBox);
+        when(service.putMoney(boxId,  CORRECT_CURRENCY, CORRECT_AMOUNT)).thenReturn(balance);
 
-        CollectionBox result = controller.putMoney(boxId,  CORRECT_CURRENCY, CORRECT_AMOUNT);
+        ResponseEntity<?> result = controller.putMoney(boxId,  CORRECT_CURRENCY, CORRECT_AMOUNT);
 
-        assertSame(sampleBox, result);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertSame(balance, result.getBody());
         verify(service).putMoney(boxId,  CORRECT_CURRENCY, CORRECT_AMOUNT);
     }
 
     @Test
     void putMoney_ValidAmount_ShouldUpdateBox() throws CollectionBoxException, ArgumentsException {
         UUID boxId = sampleBox.getUuid();
-        when(service.putMoney(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT)).thenReturn(sampleBox);
+        when(service.putMoney(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT))
+                .thenReturn(new BoxBalance(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT));
 
-        CollectionBox result = controller.putMoney(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT);
+        BoxBalance result = (BoxBalance) controller.putMoney(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT).getBody();
 
         assertNotNull(result);
+        assertEquals(CORRECT_AMOUNT, result.balance());
         verify(service).putMoney(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT);
     }
 
+    @Test
+    void putMoney_ShouldAcceptIntoJournal_WhenJournalModeIsOn() throws CollectionBoxException, ArgumentsException {
+        DepositJournalService journal = mock(DepositJournalService.class);
+        CollectionBoxController journalController = new CollectionBoxController(service, journal);
+        UUID boxId = sampleBox.getUuid();
+        DepositReceipt receipt = new DepositReceipt(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT, 7L);
+        when(journal.accept(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT)).thenReturn(receipt);
+
+        ResponseEntity<?> result = journalController.putMoney(boxId, CORRECT_CURRENCY, CORRECT_AMOUNT);
+
+        assertEquals(HttpStatus.ACCEPTED, result.getStatusCode());
+        assertSame(receipt, result.getBody());
+        verify(service, never()).putMoney(any(), any(), anyDouble());
+    }
+
 
     @Test
     void putMoney_BoxDoesntExist_ShouldThrowException() throws CollectionBoxException, ArgumentsException {
@@ -150,6 +194,14 @@ class CollectionBoxControllerTests {
         verify(service).putMoney(boxId, currency, amount);
     }
 
+    @Test
+    void invalidAmountException_ShouldMapToBadRequest() {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(InvalidAmountException.class, ResponseStatus.class);
+
+        assertNotNull(status);
+        assertEquals(HttpStatus.BAD_REQUEST, status.code());
+    }
+
     private static Stream<Arguments> invalidCurrencies() {
         return Stream.of(
                 Arguments.of("ERR", CORRECT_AMOUNT),
@@ -170,6 +222,18 @@ class CollectionBoxControllerTests {
         verify(service).putMoney(boxId, currency, amount);
     }
 
+    @Test
+    void putMoneyBatch_ShouldReturnServiceResponse() throws ArgumentsException {
+        List<DepositRequest> deposits = List.of(new DepositRequest(sampleBox.getUuid(), CORRECT_CURRENCY, CORRECT_AMOUNT));
+        BatchDepositResponse response = BatchDepositResponse.of(List.of(DepositResult.applied(0, sampleBox.getUuid())));
+        when(service.putMoneyBatch(deposits)).thenReturn(response);
+
+        BatchDepositResponse result = controller.putMoneyBatch(deposits);
+
+        assertSame(response, result);
+        verify(service).putMoneyBatch(deposits);
+    }
+
     @Test
     void empty_ShouldReturnEmptiedBox() throws Exception {
         UUID boxId = sampleBox.getUuid();
@@ -180,10 +244,10 @@ class CollectionBoxControllerTests {
             return sampleBox;
         });
 
-        CollectionBox result = controller.empty(boxId);
+        CollectionBoxResponse result = controller.empty(boxId);
 
-        assertSame(sampleBox, result);
-        assertEquals(0.0, result.getMoneyByCurrency(CORRECT_CURRENCY));
+        assertEquals(boxId, result.uuid());
+        assertTrue(result.empty());
     }
 
     @Test
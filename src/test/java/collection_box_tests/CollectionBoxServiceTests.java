@@ -1,14 +1,31 @@
 package collection_box_tests;
 
+import app.dto.BatchDepositResponse;
+import app.dto.BoxBalance;
+import app.dto.BoxTotals;
+import app.dto.CollectionBoxResponse;
+import app.dto.DepositRequest;
+import app.dto.DepositResult;
+import app.dto.KeysetPage;
 import app.exceptions.arguments.ArgumentsException;
 import app.exceptions.arguments.InvalidAmountException;
+import app.exceptions.arguments.InvalidBatchSizeException;
 import app.exceptions.arguments.InvalidCurrencyException;
+import app.exceptions.arguments.InvalidPaginationException;
 import app.exceptions.collection_box.CollectionBoxDoesntExistException;
 import app.exceptions.collection_box.CollectionBoxException;
 import app.factories.CollectionBoxFactory;
 import app.models.CollectionBox;
+import app.models.Currencies;
+import app.models.Deposit;
+import app.models.LedgerEntry;
+import app.repositories.CollectionBoxBalanceRepository;
 import app.repositories.CollectionBoxRepository;
+import app.repositories.LedgerRepository;
 import app.services.CollectionBoxService;
+import app.services.CollectionBoxTotals;
+import app.services.concurrency.ConcurrencyControl;
+import app.services.concurrency.StripedConcurrencyControl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -16,15 +33,25 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class CollectionBoxServiceTests {
@@ -32,6 +59,16 @@ class CollectionBoxServiceTests {
     @Mock
     private CollectionBoxRepository collectionBoxRepository;
 
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private CollectionBoxTotals totals;
+
+    @Spy
+    private ConcurrencyControl concurrencyControl =
+            new StripedConcurrencyControl(TransactionOperations.withoutTransaction(), 16);
+
     @InjectMocks
     private CollectionBoxService collectionBoxService;
 
@@ -55,39 +92,84 @@ class CollectionBoxServiceTests {
     }
 
     @Test
-    void listAll_ShouldReturnListOfCollectionBoxes() {
-        CollectionBox box1 = CollectionBoxFactory.createCollectionBox();
-        CollectionBox box2 = CollectionBoxFactory.createCollectionBox();
-        when(collectionBoxRepository.findAll()).thenReturn(List.of(box1, box2));
+    void listPage_ShouldReturnLastPageWithoutCursor() throws ArgumentsException {
+        CollectionBoxResponse box1 = CollectionBoxResponse.of(CollectionBoxFactory.createCollectionBox());
+        CollectionBoxResponse box2 = CollectionBoxResponse.of(CollectionBoxFactory.createCollectionBox());
+        when(collectionBoxRepository.findResponses(Limit.of(3))).thenReturn(List.of(box1, box2));
 
-        List<CollectionBox> result = collectionBoxService.listAll();
+        KeysetPage<CollectionBoxResponse> result = collectionBoxService.listPage(null, 2);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(box1, result.get(0));
-        assertEquals(box2, result.get(1));
+        assertEquals(List.of(box1, box2), result.items());
+        assertNull(result.nextCursor());
     }
 
     @Test
-    void putMoney_ShouldReturnUpdatedCollectionBox() throws CollectionBoxException, ArgumentsException {
+    void listPage_ShouldReturnCursorOfLastItem_WhenMoreRowsExist() throws ArgumentsException {
+        CollectionBoxResponse box1 = CollectionBoxResponse.of(CollectionBoxFactory.createCollectionBox());
+        CollectionBoxResponse box2 = CollectionBoxResponse.of(CollectionBoxFactory.createCollectionBox());
+        when(collectionBoxRepository.findResponses(Limit.of(2))).thenReturn(List.of(box1, box2));
+
+        KeysetPage<CollectionBoxResponse> result = collectionBoxService.listPage(null, 1);
+
+        assertEquals(List.of(box1), result.items());
+        assertEquals(box1.uuid(), KeysetPage.decodeCursor(result.nextCursor()));
+    }
+
+    @Test
+    void listPage_ShouldContinueAfterCursor() throws ArgumentsException {
+        CollectionBoxResponse box = CollectionBoxResponse.of(CollectionBoxFactory.createCollectionBox());
+        UUID after = UUID.randomUUID();
+        when(collectionBoxRepository.findResponsesAfter(after, Limit.of(11))).thenReturn(List.of(box));
+
+        KeysetPage<CollectionBoxResponse> result = collectionBoxService.listPage(KeysetPage.encodeCursor(after), 10);
+
+        assertEquals(List.of(box), result.items());
+        verify(collectionBoxRepository).findResponsesAfter(after, Limit.of(11));
+    }
+
+    @Test
+    void listPage_ShouldThrowException_WhenLimitIsInvalid() {
+        assertThrows(InvalidPaginationException.class, () -> collectionBoxService.listPage(null, 0));
+        assertThrows(InvalidPaginationException.class, () -> collectionBoxService.listPage("not-a-cursor!", 10));
+    }
+
+    @Test
+    void putMoney_ShouldReturnNewBalance() throws CollectionBoxException, ArgumentsException {
         CollectionBox box = CollectionBoxFactory.createCollectionBox();
-        when(collectionBoxRepository.findById(any())).thenReturn(Optional.of(box));
-        when(collectionBoxRepository.save(any(CollectionBox.class))).thenReturn(box);
+        when(collectionBoxRepository.addToBalance(any())).thenReturn(OptionalLong.of(25_000L));
 
-        CollectionBox result = collectionBoxService.putMoney(box.getUuid(), CORRECT_CURRENCY, CORRECT_AMOUNT);
+        BoxBalance result = collectionBoxService.putMoney(box.getUuid(), CORRECT_CURRENCY, CORRECT_AMOUNT);
 
         assertNotNull(result);
-        assertEquals(CORRECT_AMOUNT, result.getMoneyByCurrency(CORRECT_CURRENCY));
+        assertEquals(box.getUuid(), result.boxId());
+        assertEquals(CORRECT_CURRENCY, result.currency());
+        assertEquals(250.0, result.balance());
+        verify(totals).deposited(new Deposit(box.getUuid(), Currencies.PLN, 10_000L));
+        verify(collectionBoxRepository, never()).findById(any());
+        verify(collectionBoxRepository, never()).save(any(CollectionBox.class));
     }
 
     @Test
-    void putMoney_ShouldThrowException_WhenBoxDoesntExist() {
+    void putMoney_ShouldThrowException_WhenBoxDoesntExist() throws ArgumentsException {
         CollectionBox box = CollectionBoxFactory.createCollectionBox();
-        when(collectionBoxRepository.findById(any())).thenReturn(Optional.empty());
+        when(collectionBoxRepository.addToBalance(any())).thenReturn(OptionalLong.empty());
 
         assertThrows(CollectionBoxDoesntExistException.class, () -> {
             collectionBoxService.putMoney(box.getUuid(), CORRECT_CURRENCY, CORRECT_AMOUNT);
         });
+        verify(totals, never()).deposited(any(Deposit.class));
+    }
+
+    @Test
+    void putMoney_ShouldThrowInvalidAmountException_WhenBalanceWouldOverflow() throws ArgumentsException {
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        when(collectionBoxRepository.addToBalance(any())).thenThrow(new InvalidAmountException(CORRECT_AMOUNT));
+
+        assertThrows(InvalidAmountException.class, () -> {
+            collectionBoxService.putMoney(box.getUuid(), CORRECT_CURRENCY, CORRECT_AMOUNT);
+        });
+        verify(totals, never()).deposited(any(Deposit.class));
     }
 
     private static Stream<Double> invalidAmounts() {
@@ -96,7 +178,7 @@ class CollectionBoxServiceTests {
 
     @ParameterizedTest
     @MethodSource("invalidAmounts")
-    void putMoney_ShouldThrowInvalidAmountException(double amount) {
+    void putMoney_ShouldThrowInvalidAmountException(double amount) throws ArgumentsException {
         CollectionBox box = CollectionBoxFactory.createCollectionBox();
         when(collectionBoxRepository.findById(any()))
                 .thenReturn(Optional.of(box));
@@ -104,6 +186,7 @@ class CollectionBoxServiceTests {
         assertThrows(InvalidAmountException.class, () -> {
             collectionBoxService.putMoney(box.getUuid(), CORRECT_CURRENCY, amount);
         });
+        verify(collectionBoxRepository, never()).addToBalance(any());
     }
 
     private static Stream<String> invalidCurrencies() {
@@ -112,7 +195,7 @@ class CollectionBoxServiceTests {
 
     @ParameterizedTest
     @MethodSource("invalidCurrencies")
-    void putMoney_ShouldThrowInvalidCurrencyException(String currency) {
+    void putMoney_ShouldThrowInvalidCurrencyException(String currency) throws ArgumentsException {
         CollectionBox box = CollectionBoxFactory.createCollectionBox();
         when(collectionBoxRepository.findById(any()))
                 .thenReturn(Optional.of(box));
@@ -120,6 +203,7 @@ class CollectionBoxServiceTests {
         assertThrows(InvalidCurrencyException.class, () -> {
             collectionBoxService.putMoney(box.getUuid(), currency, CORRECT_AMOUNT);
         });
+        verify(collectionBoxRepository, never()).addToBalance(any());
     }
 
     @Test
@@ -153,6 +237,23 @@ class CollectionBoxServiceTests {
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
+        verify(ledgerRepository, never()).append(anyList());
+    }
+
+    @Test
+    void emptyBox_ShouldRecordEmptiedBalancesInLedger() throws Exception {
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        box.putMoney("PLN", 12.5);
+        when(collectionBoxRepository.findById(any())).thenReturn(Optional.of(box));
+        when(collectionBoxRepository.save(any(CollectionBox.class))).thenReturn(box);
+
+        collectionBoxService.emptyBox(box.getUuid());
+
+        verify(collectionBoxRepository).flush();
+        List<LedgerEntry> emptied = List.of(
+                new LedgerEntry(LedgerEntry.Type.EMPTY, box.getUuid(), null, Currencies.PLN, -1250L, null, null));
+        verify(ledgerRepository).append(emptied);
+        verify(totals).recorded(emptied);
     }
 
     @Test
@@ -164,4 +265,59 @@ class CollectionBoxServiceTests {
             collectionBoxService.emptyBox(box.getUuid());
         });
     }
+
+    @Test
+    void putMoneyBatch_ShouldReportPerItemResults() throws ArgumentsException {
+        UUID existingBox = UUID.randomUUID();
+        UUID missingBox = UUID.randomUUID();
+        when(collectionBoxRepository.addToBalances(anyList())).thenReturn(new int[]{1, 0});
+
+        BatchDepositResponse response = collectionBoxService.putMoneyBatch(List.of(
+                new DepositRequest(existingBox, CORRECT_CURRENCY, CORRECT_AMOUNT),
+                new DepositRequest(existingBox, "ERR", CORRECT_AMOUNT),
+                new DepositRequest(missingBox, CORRECT_CURRENCY, CORRECT_AMOUNT),
+                new DepositRequest(existingBox, CORRECT_CURRENCY, -1.0)
+        ));
+
+        assertEquals(1, response.applied());
+        assertEquals(3, response.rejected());
+        assertEquals(DepositResult.Status.APPLIED, response.results().get(0).status());
+        assertEquals(DepositResult.Status.REJECTED, response.results().get(1).status());
+        assertEquals(DepositResult.Status.REJECTED, response.results().get(2).status());
+        assertEquals(DepositResult.Status.REJECTED, response.results().get(3).status());
+        verify(collectionBoxRepository).addToBalances(anyList());
+        verify(totals).deposited(anyList(), eq(new int[]{1, 0}));
+    }
+
+    @Test
+    void putMoneyBatch_ShouldRejectWithAmountError_WhenBalanceWouldOverflow() throws ArgumentsException {
+        UUID fullBox = UUID.randomUUID();
+        UUID missingBox = UUID.randomUUID();
+        when(collectionBoxRepository.addToBalances(anyList()))
+                .thenReturn(new int[]{CollectionBoxBalanceRepository.OVERFLOW, 0});
+
+        BatchDepositResponse response = collectionBoxService.putMoneyBatch(List.of(
+                new DepositRequest(fullBox, CORRECT_CURRENCY, CORRECT_AMOUNT),
+                new DepositRequest(missingBox, CORRECT_CURRENCY, CORRECT_AMOUNT)
+        ));
+
+        assertEquals(0, response.applied());
+        assertEquals(DepositResult.Status.REJECTED, response.results().get(0).status());
+        assertEquals(new InvalidAmountException(CORRECT_AMOUNT).getMessage(), response.results().get(0).error());
+        assertEquals(new CollectionBoxDoesntExistException().getMessage(), response.results().get(1).error());
+    }
+
+    @Test
+    void getTotals_ShouldReadCounters() {
+        BoxTotals boxTotals = new BoxTotals(Map.of("PLN", 12.5, "EUR", 0.0, "GBP", 0.0));
+        when(totals.getTotals()).thenReturn(boxTotals);
+
+        assertSame(boxTotals, collectionBoxService.getTotals());
+        verifyNoInteractions(collectionBoxRepository);
+    }
+
+    @Test
+    void putMoneyBatch_ShouldThrowException_WhenBatchIsEmpty() {
+        assertThrows(InvalidBatchSizeException.class, () -> collectionBoxService.putMoneyBatch(List.of()));
+    }
 }
@@ -29,6 +29,31 @@ public class CollectionBoxTests {
         assertEquals(CORRECT_AMOUNT, box.getMoneyByCurrency(CORRECT_CURRENCY));
     }
 
+    @Test
+    public void putMoneyTwice_ShouldAccumulate() throws ArgumentsException {
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        box.putMoney(CORRECT_CURRENCY, CORRECT_AMOUNT);
+        box.putMoney(CORRECT_CURRENCY, CORRECT_AMOUNT);
+        assertEquals(2 * CORRECT_AMOUNT, box.getMoneyByCurrency(CORRECT_CURRENCY));
+    }
+
+    @Test
+    public void putMoneyManySmallAmounts_ShouldNotDrift() throws ArgumentsException {
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        for (int i = 0; i < 10; i++) {
+            box.putMoney(CORRECT_CURRENCY, 0.1);
+        }
+        assertEquals(1.0, box.getMoneyByCurrency(CORRECT_CURRENCY));
+        assertEquals(100L, box.getMinorUnits(Currencies.PLN));
+    }
+
+    @Test
+    public void putMoney_AmountBelowMinorUnit_ShouldThrowInvalidAmount() {
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        assertThrows(InvalidAmountException.class,
+                () -> box.putMoney(CORRECT_CURRENCY, 0.001));
+    }
+
     static Stream<Double> invalidAmountArguments() {
         return Stream.of(-1.0, -100.5);
     }
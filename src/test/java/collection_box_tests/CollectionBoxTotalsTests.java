@@ -0,0 +1,114 @@
+package collection_box_tests;
+
+import app.models.Currencies;
+import app.models.Deposit;
+import app.models.LedgerEntry;
+import app.repositories.CollectionBoxRepository;
+import app.services.CollectionBoxTotals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class CollectionBoxTotalsTests {
+    @Mock
+    private CollectionBoxRepository boxRepository;
+
+    private CollectionBoxTotals totals;
+
+    private final UUID box = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(boxRepository.sumBalances()).thenReturn(new long[]{10_000L, 250L, 0L});
+        totals = new CollectionBoxTotals(boxRepository);
+        totals.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void rebuild_ShouldLoadSumsFromDatabase() {
+        assertEquals(Map.of("PLN", 100.0, "EUR", 2.5, "GBP", 0.0), totals.getTotals().totals());
+    }
+
+    @Test
+    public void rebuild_ShouldReplacePreviousTotals() {
+        totals.deposited(new Deposit(box, Currencies.GBP, 500L));
+        when(boxRepository.sumBalances()).thenReturn(new long[]{1L, 2L, 3L});
+
+        totals.rebuild();
+
+        assertEquals(3L, totals.getMinorUnits(Currencies.GBP));
+    }
+
+    @Test
+    public void deposited_ShouldSkipDepositsWithoutBox() {
+        totals.deposited(List.of(
+                new Deposit(box, Currencies.PLN, 150L),
+                new Deposit(UUID.randomUUID(), Currencies.PLN, 999L),
+                new Deposit(box, Currencies.EUR, 50L)), new int[]{1, 0, 1});
+
+        assertEquals(10_150L, totals.getMinorUnits(Currencies.PLN));
+        assertEquals(300L, totals.getMinorUnits(Currencies.EUR));
+    }
+
+    @Test
+    public void recorded_ShouldSubtractEmptiedBalances() {
+        totals.recorded(List.of(
+                new LedgerEntry(LedgerEntry.Type.EMPTY, box, null, Currencies.PLN, -4_000L, null, null),
+                new LedgerEntry(LedgerEntry.Type.EMPTY, box, null, Currencies.EUR, -250L, null, null)));
+
+        assertEquals(6_000L, totals.getMinorUnits(Currencies.PLN));
+        assertEquals(0L, totals.getMinorUnits(Currencies.EUR));
+    }
+
+    @Test
+    public void swept_ShouldSubtractTransferredMoney() {
+        totals.swept(new long[]{10_000L, 0L, 0L});
+
+        assertEquals(0.0, totals.getTotals().totals().get("PLN"));
+        assertEquals(2.5, totals.getTotals().totals().get("EUR"));
+    }
+
+    @Test
+    public void changes_ShouldApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        totals.deposited(new Deposit(box, Currencies.PLN, 500L));
+        assertEquals(10_000L, totals.getMinorUnits(Currencies.PLN));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(10_500L, totals.getMinorUnits(Currencies.PLN));
+    }
+
+    @Test
+    public void changes_ShouldBeDropped_WhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        totals.deposited(new Deposit(box, Currencies.PLN, 500L));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+
+        assertEquals(10_000L, totals.getMinorUnits(Currencies.PLN));
+    }
+}
@@ -0,0 +1,101 @@
+package fundraising_event_tests;
+
+import app.dto.TransferAllResponse;
+import app.dto.TransferFailure;
+import app.models.ExchangeRates;
+import app.repositories.FundraisingEventRepository;
+import app.repositories.FundraisingEventTransferRepository.ChunkResult;
+import app.services.BulkTransferService;
+import app.services.CollectionBoxTotals;
+import app.services.report.FinancialReportCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class BulkTransferServiceTests {
+    @Mock
+    private FundraisingEventRepository eventRepository;
+
+    @Mock
+    private FinancialReportCache reportCache;
+
+    @Mock
+    private CollectionBoxTotals boxTotals;
+
+    private BulkTransferService service;
+
+    private final UUID first = new UUID(0, 1);
+    private final UUID second = new UUID(0, 2);
+    private final UUID third = new UUID(0, 3);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new BulkTransferService(eventRepository, TransactionOperations.withoutTransaction(),
+                reportCache, boxTotals, Executors.newFixedThreadPool(2), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+    }
+
+    @Test
+    public void transferAll_ShouldSplitRequestedEventsIntoChunks() {
+        long[] swept = {500L, 0L, 0L};
+        when(eventRepository.transferChunk(eq(List.of(first, second)), any(ExchangeRates.class)))
+                .thenReturn(new ChunkResult(List.of(first), 1, List.of(), swept));
+        when(eventRepository.transferChunk(eq(List.of(third)), any(ExchangeRates.class)))
+                .thenReturn(new ChunkResult(List.of(), 0,
+                        List.of(new TransferFailure(third, "Collection box is not assigned to this event"))));
+
+        TransferAllResponse response = service.transferAll(List.of(first, second, third, first));
+
+        assertEquals(3, response.events());
+        assertEquals(1, response.transferred());
+        assertEquals(1, response.skipped());
+        assertEquals(1, response.failed());
+        assertEquals(third, response.failures().get(0).eventId());
+        verify(eventRepository).findReportEntriesByUuidIn(List.of(first));
+        verify(boxTotals).swept(swept);
+    }
+
+    @Test
+    public void transferAll_ShouldPageThroughAllEvents_WhenNoIdsGiven() {
+        when(eventRepository.findEventIdsAfter(null, 2)).thenReturn(List.of(first, second));
+        when(eventRepository.findEventIdsAfter(second, 2)).thenReturn(List.of(third));
+        when(eventRepository.transferChunk(any(), any(ExchangeRates.class)))
+                .thenReturn(new ChunkResult(List.of(), 0, List.of()));
+
+        TransferAllResponse response = service.transferAll(null);
+
+        assertEquals(3, response.events());
+        verify(eventRepository).transferChunk(eq(List.of(first, second)), any(ExchangeRates.class));
+        verify(eventRepository).transferChunk(eq(List.of(third)), any(ExchangeRates.class));
+    }
+
+    @Test
+    public void transferAll_ShouldReportEveryEventOfFailedChunk() {
+        when(eventRepository.transferChunk(any(), any(ExchangeRates.class)))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        TransferAllResponse response = service.transferAll(List.of(first, second));
+
+        assertEquals(0, response.transferred());
+        assertEquals(2, response.failed());
+        verify(reportCache, never()).entriesChanged(any());
+    }
+}
@@ -0,0 +1,89 @@
+package fundraising_event_tests;
+
+import app.factories.FundraisingEventFactory;
+import app.models.FinancialReportEntry;
+import app.models.FinancialReportProjection;
+import app.models.FundraisingEvent;
+import app.repositories.FundraisingEventRepository;
+import app.services.report.FinancialReportCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class FinancialReportCacheTests {
+    @Mock
+    private FundraisingEventRepository eventRepository;
+
+    private FinancialReportCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new FinancialReportCache(eventRepository);
+    }
+
+    @Test
+    public void rebuild_ShouldLoadReportFromDatabase() {
+        when(eventRepository.findAllReportEntries()).thenReturn(List.of(
+                new FinancialReportEntry(UUID.randomUUID(), 0, "First", 10.0, "PLN"),
+                new FinancialReportEntry(UUID.randomUUID(), 3, "Second", 2.5, "EUR")));
+
+        cache.rebuild();
+
+        List<FinancialReportProjection> report = cache.getReport();
+        assertEquals(2, report.size());
+        assertEquals("First", report.get(0).getName());
+        assertEquals(2.5, report.get(1).getAccountBalance());
+    }
+
+    @Test
+    public void eventChanged_ShouldAddNewEvent() {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent("Event", "PLN");
+
+        cache.eventChanged(event);
+
+        assertEquals(1, cache.size());
+        assertEquals("Event", cache.getReport().get(0).getName());
+        assertEquals(0.0, cache.getReport().get(0).getAccountBalance());
+    }
+
+    @Test
+    public void eventChanged_ShouldIgnoreOlderVersion() {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent("Event", "PLN");
+        when(eventRepository.findAllReportEntries()).thenReturn(List.of(
+                new FinancialReportEntry(event.getUuid(), 2, "Event", 40.0, "PLN")));
+        cache.rebuild();
+
+        cache.eventChanged(event);
+
+        assertEquals(40.0, cache.getReport().get(0).getAccountBalance());
+    }
+
+    @Test
+    public void eventRemoved_ShouldDropEvent() {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent("Event", "PLN");
+        cache.eventChanged(event);
+
+        cache.eventRemoved(event.getUuid());
+
+        assertTrue(cache.getReport().isEmpty());
+    }
+
+    @Test
+    public void getReport_ShouldKeepEarlierSnapshotUnchanged() {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent("Event", "PLN");
+        List<FinancialReportProjection> before = cache.getReport();
+
+        cache.eventChanged(event);
+
+        assertTrue(before.isEmpty());
+        assertEquals(1, cache.getReport().size());
+    }
+}
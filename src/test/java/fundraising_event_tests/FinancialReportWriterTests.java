@@ -0,0 +1,62 @@
+package fundraising_event_tests;
+
+import app.models.FinancialReportProjection;
+import app.services.report.FinancialReportFormat;
+import app.services.report.FinancialReportWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FinancialReportWriterTests {
+
+    private static FinancialReportProjection row(String name, Double balance, String currency) {
+        return new FinancialReportProjection() {
+            @Override public String getName()           { return name; }
+            @Override public Double getAccountBalance() { return balance; }
+            @Override public String getCurrency()       { return currency; }
+        };
+    }
+
+    private static String write(FinancialReportFormat format, FinancialReportProjection... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (FinancialReportWriter writer = FinancialReportWriter.create(format, out)) {
+            for (FinancialReportProjection row : rows) {
+                writer.accept(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void ndjson_ShouldWriteOneObjectPerLine() throws IOException {
+        String result = write(FinancialReportFormat.NDJSON,
+                row("First", 10.5, "PLN"),
+                row("Second", 0.0, "EUR"));
+
+        assertEquals("{\"name\":\"First\",\"accountBalance\":10.5,\"currency\":\"PLN\"}\n"
+                + "{\"name\":\"Second\",\"accountBalance\":0.0,\"currency\":\"EUR\"}\n", result);
+    }
+
+    @Test
+    public void csv_ShouldWriteHeaderAndQuoteSpecialCharacters() throws IOException {
+        String result = write(FinancialReportFormat.CSV,
+                row("Plain", 1.0, "PLN"),
+                row("Say \"hi\", all", 2.5, "GBP"));
+
+        assertEquals("name,accountBalance,currency\n"
+                + "Plain,1.0,PLN\n"
+                + "\"Say \"\"hi\"\", all\",2.5,GBP\n", result);
+    }
+
+    @Test
+    public void fromAcceptHeader_ShouldChooseFormat() {
+        assertEquals(FinancialReportFormat.CSV, FinancialReportFormat.fromAcceptHeader("text/csv"));
+        assertEquals(FinancialReportFormat.NDJSON, FinancialReportFormat.fromAcceptHeader("application/x-ndjson"));
+        assertEquals(FinancialReportFormat.NDJSON, FinancialReportFormat.fromAcceptHeader("*/*"));
+        assertEquals(FinancialReportFormat.NDJSON, FinancialReportFormat.fromAcceptHeader(null));
+    }
+}
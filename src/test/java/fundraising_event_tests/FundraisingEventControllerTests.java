@@ -1,6 +1,10 @@
 package fundraising_event_tests;
 
 import app.controllers.FundraisingEventController;
+import app.dto.FundraisingEventResponse;
+import app.dto.FundraisingEventSummary;
+import app.dto.KeysetPage;
+import app.dto.TransferAllResponse;
 import app.exceptions.arguments.ArgumentsException;
 import app.exceptions.collection_box.CollectionBoxDoesntExistException;
 import app.exceptions.collection_box.CollectionBoxException;
@@ -9,6 +13,7 @@ import app.exceptions.fundraising_event.FundraisingEventException;
 import app.factories.FundraisingEventFactory;
 import app.models.FinancialReportProjection;
 import app.models.FundraisingEvent;
+import app.services.BulkTransferService;
 import app.services.FundraisingEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,6 +35,9 @@ public class FundraisingEventControllerTests {
     @Mock
     private FundraisingEventService service;
 
+    @Mock
+    private BulkTransferService bulkTransferService;
+
     @InjectMocks
     private FundraisingEventController controller;
 
@@ -47,31 +55,48 @@ public class FundraisingEventControllerTests {
     public void createFundraisingEvent_ShouldReturnNewEvent() {
         when(service.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY)).thenReturn(sampleEvent);
 
-        FundraisingEvent result = controller.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        FundraisingEventResponse result = controller.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
 
-        assertSame(sampleEvent, result);
+        assertEquals(sampleEvent.getUuid(), result.uuid());
+        assertEquals(CORRECT_NAME, result.name());
+        assertEquals(CORRECT_CURRENCY, result.currency());
+        assertTrue(result.collectionBoxes().isEmpty());
         verify(service).createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
     }
 
     @Test
-    public void listAll_ShouldReturnListOfEvents() {
-        List<FundraisingEvent> events = List.of(sampleEvent);
-        when(service.listAll()).thenReturn(events);
+    public void transferAll_ShouldReturnSummary() {
+        List<UUID> ids = List.of(sampleEvent.getUuid());
+        TransferAllResponse response = new TransferAllResponse(1, 1, 0, 0, 1L, 5L, List.of());
+        when(bulkTransferService.transferAll(ids)).thenReturn(response);
+
+        TransferAllResponse result = controller.transferAll(ids);
+
+        assertSame(response, result);
+        verify(bulkTransferService).transferAll(ids);
+    }
+
+    @Test
+    public void listAll_ShouldReturnPageOfEvents() throws ArgumentsException {
+        FundraisingEventSummary summary = new FundraisingEventSummary(sampleEvent.getUuid(), CORRECT_NAME,
+                CORRECT_CURRENCY, 0.0, null, 0L, null);
+        KeysetPage<FundraisingEventSummary> page = new KeysetPage<>(List.of(summary), null);
+        when(service.listPage(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(page);
 
-        List<FundraisingEvent> result = controller.listAll();
+        KeysetPage<FundraisingEventSummary> result = controller.listAll(null, KeysetPage.DEFAULT_LIMIT);
 
-        assertEquals(events, result);
-        verify(service).listAll();
+        assertSame(page, result);
+        verify(service).listPage(null, KeysetPage.DEFAULT_LIMIT);
     }
 
     @Test
-    public void listAll_ShouldReturnEmptyList_WhenNoEventsExist() {
-        when(service.listAll()).thenReturn(Collections.emptyList());
+    public void listAll_ShouldReturnEmptyPage_WhenNoEventsExist() throws ArgumentsException {
+        when(service.listPage(null, KeysetPage.DEFAULT_LIMIT)).thenReturn(new KeysetPage<>(Collections.emptyList(), null));
 
-        List<FundraisingEvent> result = controller.listAll();
+        KeysetPage<FundraisingEventSummary> result = controller.listAll(null, KeysetPage.DEFAULT_LIMIT);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.items().isEmpty());
     }
 
     @Test
@@ -94,11 +119,12 @@ public class FundraisingEventControllerTests {
     @Test
     public void getFundraisingEventById_ShouldReturnEvent() throws FundraisingEventException {
         UUID eventId = sampleEvent.getUuid();
-        when(service.getFundraisingEventById(eventId)).thenReturn(sampleEvent);
+        FundraisingEventResponse response = FundraisingEventResponse.of(sampleEvent);
+        when(service.getFundraisingEventById(eventId)).thenReturn(response);
 
-        FundraisingEvent result = controller.getFundraisingEventById(eventId);
+        FundraisingEventResponse result = controller.getFundraisingEventById(eventId);
 
-        assertSame(sampleEvent, result);
+        assertSame(response, result);
         verify(service).getFundraisingEventById(eventId);
     }
 
@@ -166,20 +192,31 @@ public class FundraisingEventControllerTests {
     @Test
     public void unregisterCollectionBoxFromFundraisingEvent_ShouldCallService() throws FundraisingEventException, CollectionBoxException {
         UUID eventId = sampleEvent.getUuid();
+        UUID boxId = UUID.randomUUID();
 
-        controller.unregisterCollectionBoxFromFundraisingEvent(eventId);
+        controller.unregisterCollectionBoxFromFundraisingEvent(eventId, boxId);
 
-        verify(service).unregisterCollectionBoxFromFundraisingEvent(eventId);
+        verify(service).unregisterCollectionBoxFromFundraisingEvent(eventId, boxId);
     }
 
     @Test
     public void unregisterCollectionBoxFromFundraisingEvent_ShouldThrowException_WhenEventNotFound() throws FundraisingEventException, CollectionBoxException {
         UUID eventId = UUID.randomUUID();
-        doThrow(FundraisingEventDoesntExistException.class).when(service).unregisterCollectionBoxFromFundraisingEvent(eventId);
+        UUID boxId = UUID.randomUUID();
+        doThrow(FundraisingEventDoesntExistException.class).when(service).unregisterCollectionBoxFromFundraisingEvent(eventId, boxId);
+
+        assertThrows(FundraisingEventDoesntExistException.class, () -> controller.unregisterCollectionBoxFromFundraisingEvent(eventId, boxId));
+
+        verify(service).unregisterCollectionBoxFromFundraisingEvent(eventId, boxId);
+    }
+
+    @Test
+    public void unregisterCollectionBoxesFromFundraisingEvent_ShouldCallService() throws FundraisingEventException, CollectionBoxException {
+        UUID eventId = sampleEvent.getUuid();
 
-        assertThrows(FundraisingEventDoesntExistException.class, () -> controller.unregisterCollectionBoxFromFundraisingEvent(eventId));
+        controller.unregisterCollectionBoxesFromFundraisingEvent(eventId);
 
-        verify(service).unregisterCollectionBoxFromFundraisingEvent(eventId);
+        verify(service).unregisterCollectionBoxesFromFundraisingEvent(eventId);
     }
 
     @Test
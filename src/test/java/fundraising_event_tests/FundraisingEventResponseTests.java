@@ -0,0 +1,103 @@
+package fundraising_event_tests;
+
+import app.dto.FundraisingEventBoxRow;
+import app.dto.FundraisingEventResponse;
+import app.exceptions.arguments.*;
+import app.exceptions.collection_box.*;
+import app.exceptions.fundraising_event.*;
+import app.factories.CollectionBoxFactory;
+import app.factories.FundraisingEventFactory;
+import app.models.CollectionBox;
+import app.models.FundraisingEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FundraisingEventResponseTests {
+
+    private static final String CORRECT_NAME = "Test Event";
+    private static final String CORRECT_CURRENCY = "PLN";
+
+    @Test
+    public void of_ShouldListNoBoxes_WhenNoneAssigned() {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+
+        FundraisingEventResponse response = FundraisingEventResponse.of(event);
+
+        assertEquals(event.getUuid(), response.uuid());
+        assertEquals(CORRECT_NAME, response.name());
+        assertEquals(0.0, response.accountBalance());
+        assertTrue(response.collectionBoxes().isEmpty());
+        assertTrue(response.boxBalances().isEmpty());
+    }
+
+    @Test
+    public void of_ShouldListOnlyNonZeroBalances()
+            throws ArgumentsException, CollectionBoxException, FundraisingEventException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(box);
+        box.putMoney("EUR", 12.5);
+
+        FundraisingEventResponse.AssignedBox assigned = FundraisingEventResponse.of(event).collectionBoxes().get(0);
+
+        assertEquals(box.getUuid(), assigned.uuid());
+        assertFalse(assigned.empty());
+        assertEquals(Map.of("EUR", 12.5), assigned.balances());
+    }
+
+    @Test
+    public void of_ShouldAddUpBalancesOfAllBoxes()
+            throws ArgumentsException, CollectionBoxException, FundraisingEventException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox box1 = CollectionBoxFactory.createCollectionBox();
+        CollectionBox box2 = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(box1);
+        event.assignCollectionBox(box2);
+        box1.putMoney("EUR", 12.5);
+        box2.putMoney("EUR", 0.1);
+        box2.putMoney("GBP", 3.0);
+
+        FundraisingEventResponse response = FundraisingEventResponse.of(event);
+
+        assertEquals(2, response.collectionBoxes().size());
+        assertEquals(Map.of("EUR", 12.6, "GBP", 3.0), response.boxBalances());
+    }
+
+    @Test
+    public void ofRows_ShouldGiveEmptyBoxAnEmptyMap() {
+        UUID boxId = UUID.randomUUID();
+
+        FundraisingEventResponse response = FundraisingEventResponse.of(List.of(new FundraisingEventBoxRow(
+                UUID.randomUUID(), CORRECT_NAME, CORRECT_CURRENCY, 0.0, null, boxId, 0L, 0L, 0L)));
+
+        assertEquals(boxId, response.collectionBoxes().get(0).uuid());
+        assertTrue(response.collectionBoxes().get(0).empty());
+        assertTrue(response.collectionBoxes().get(0).balances().isEmpty());
+    }
+
+    @Test
+    public void ofRows_ShouldFoldOneRowPerBox() {
+        UUID eventId = UUID.randomUUID();
+
+        FundraisingEventResponse response = FundraisingEventResponse.of(List.of(
+                new FundraisingEventBoxRow(eventId, CORRECT_NAME, CORRECT_CURRENCY, 1.0, 3L, UUID.randomUUID(), 150L, 0L, 0L),
+                new FundraisingEventBoxRow(eventId, CORRECT_NAME, CORRECT_CURRENCY, 1.0, 3L, UUID.randomUUID(), 50L, 0L, 0L)));
+
+        assertEquals(eventId, response.uuid());
+        assertEquals(2, response.collectionBoxes().size());
+        assertEquals(Map.of("PLN", 2.0), response.boxBalances());
+    }
+
+    @Test
+    public void ofRows_ShouldListNoBoxes_WhenJoinFoundNone() {
+        FundraisingEventResponse response = FundraisingEventResponse.of(List.of(new FundraisingEventBoxRow(
+                UUID.randomUUID(), CORRECT_NAME, CORRECT_CURRENCY, 0.0, null, null, null, null, null)));
+
+        assertTrue(response.collectionBoxes().isEmpty());
+    }
+}
@@ -3,25 +3,51 @@ package fundraising_event_tests;
 import app.exceptions.arguments.*;
 import app.exceptions.collection_box.*;
 import app.exceptions.fundraising_event.*;
+import app.dto.FundraisingEventBoxRow;
+import app.dto.FundraisingEventResponse;
+import app.dto.FundraisingEventSummary;
+import app.dto.KeysetPage;
+import app.dto.TransferFailure;
 import app.factories.CollectionBoxFactory;
 import app.factories.FundraisingEventFactory;
 import app.models.CollectionBox;
+import app.models.Currencies;
+import app.models.ExchangeRates;
+import app.models.FinancialReportEntry;
 import app.models.FinancialReportProjection;
 import app.models.FundraisingEvent;
+import app.models.LedgerEntry;
 import app.repositories.CollectionBoxRepository;
 import app.repositories.FundraisingEventRepository;
+import app.repositories.FundraisingEventTransferRepository.ChunkResult;
+import app.repositories.LedgerRepository;
+import app.services.CollectionBoxTotals;
+import app.services.CurrencyConverter;
 import app.services.FundraisingEventService;
+import app.services.concurrency.ConcurrencyControl;
+import app.services.concurrency.StripedConcurrencyControl;
+import app.services.report.FinancialReportCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +58,19 @@ public class FundraisingEventServiceTests {
     @Mock
     private CollectionBoxRepository boxRepository;
 
+    @Mock
+    private FinancialReportCache reportCache;
+
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private CollectionBoxTotals boxTotals;
+
+    @Spy
+    private ConcurrencyControl concurrencyControl =
+            new StripedConcurrencyControl(TransactionOperations.withoutTransaction(), 16);
+
     @InjectMocks
     private FundraisingEventService fundraisingEventService;
 
@@ -53,20 +92,36 @@ public class FundraisingEventServiceTests {
 
         assertNotNull(result);
         assertEquals(newEvent, result);
+        verify(reportCache).eventChanged(newEvent);
     }
 
     @Test
-    public void listAll_ShouldReturnListOfFundraisingEvents() {
-        FundraisingEvent event1 = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
-        FundraisingEvent event2 = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
-        when(eventRepository.findAll()).thenReturn(List.of(event1, event2));
+    public void listPage_ShouldReturnPageOfFundraisingEvents() throws ArgumentsException {
+        FundraisingEventSummary first = new FundraisingEventSummary(UUID.randomUUID(), CORRECT_NAME,
+                CORRECT_CURRENCY, 0.0, null, 1L, true);
+        FundraisingEventSummary second = new FundraisingEventSummary(UUID.randomUUID(), CORRECT_NAME,
+                CORRECT_CURRENCY, 0.0, null, 0L, null);
+        when(eventRepository.findSummaries(Limit.of(2))).thenReturn(List.of(first, second));
 
-        List<FundraisingEvent> result = fundraisingEventService.listAll();
+        KeysetPage<FundraisingEventSummary> result = fundraisingEventService.listPage(null, 1);
 
         assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(event1, result.get(0));
-        assertEquals(event2, result.get(1));
+        assertEquals(List.of(first), result.items());
+        assertEquals(first.uuid(), KeysetPage.decodeCursor(result.nextCursor()));
+    }
+
+    @Test
+    public void listPage_ShouldContinueAfterCursor() throws ArgumentsException {
+        UUID after = UUID.randomUUID();
+        FundraisingEventSummary summary = new FundraisingEventSummary(UUID.randomUUID(), CORRECT_NAME,
+                CORRECT_CURRENCY, 0.0, null, 0L, null);
+        when(eventRepository.findSummariesAfter(after, Limit.of(11))).thenReturn(List.of(summary));
+
+        KeysetPage<FundraisingEventSummary> result =
+                fundraisingEventService.listPage(KeysetPage.encodeCursor(after), 10);
+
+        assertEquals(List.of(summary), result.items());
+        assertNull(result.nextCursor());
     }
 
     @Test
@@ -82,7 +137,7 @@ public class FundraisingEventServiceTests {
             @Override public Double getAccountBalance()  { return 0.0; }
         };
 
-       when(eventRepository.findAllProjectedBy())
+        when(reportCache.getReport())
                 .thenReturn(List.of(p1, p2));
 
         List<FinancialReportProjection> report =
@@ -99,6 +154,21 @@ public class FundraisingEventServiceTests {
 
     }
 
+    @Test
+    public void streamFinancialReport_ShouldPassEveryRowToSink() {
+        FinancialReportProjection row = new FinancialReportProjection() {
+            @Override public String getName()            { return CORRECT_NAME; }
+            @Override public String getCurrency()        { return CORRECT_CURRENCY; }
+            @Override public Double getAccountBalance()  { return 0.0; }
+        };
+        when(eventRepository.streamAllProjectedBy()).thenReturn(Stream.of(row, row));
+        List<FinancialReportProjection> received = new ArrayList<>();
+
+        fundraisingEventService.streamFinancialReport(received::add);
+
+        assertEquals(2, received.size());
+    }
+
     @Test
     public void deleteFundraisingEventById_ShouldDeleteEvent()
             throws FundraisingEventException {
@@ -108,6 +178,21 @@ public class FundraisingEventServiceTests {
         fundraisingEventService.deleteFundraisingEventById(event.getUuid());
 
         verify(eventRepository).delete(event);
+        verify(reportCache).eventRemoved(event.getUuid());
+    }
+
+    @Test
+    public void deleteFundraisingEventById_ShouldUnassignBox()
+            throws FundraisingEventException, CollectionBoxException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(box);
+        when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
+
+        fundraisingEventService.deleteFundraisingEventById(event.getUuid());
+
+        assertFalse(box.isAssignedToFundraisingEvent());
+        verify(eventRepository).delete(event);
     }
 
     @Test
@@ -131,7 +216,7 @@ public class FundraisingEventServiceTests {
 
         fundraisingEventService.assignCollectionBoxToFundraisingEvent(event.getUuid(), box.getUuid());
 
-        assertEquals(box, event.getCollectionBox());
+        assertEquals(List.of(box), event.getCollectionBoxes());
     }
 
     @Test
@@ -162,13 +247,35 @@ public class FundraisingEventServiceTests {
     public void unregisterCollectionBoxFromFundraisingEvent_ShouldUnassignBoxFromEvent()
             throws FundraisingEventException, CollectionBoxException {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
-        event.assignCollectionBox(CollectionBoxFactory.createCollectionBox());
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        CollectionBox otherBox = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(box);
+        event.assignCollectionBox(otherBox);
         when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
         when(eventRepository.save(any(FundraisingEvent.class))).thenReturn(event);
 
-        fundraisingEventService.unregisterCollectionBoxFromFundraisingEvent(event.getUuid());
+        fundraisingEventService.unregisterCollectionBoxFromFundraisingEvent(event.getUuid(), box.getUuid());
+
+        assertEquals(List.of(otherBox), event.getCollectionBoxes());
+        verify(ledgerRepository, never()).append(anyList());
+    }
+
+    @Test
+    public void unregisterCollectionBoxFromFundraisingEvent_ShouldRecordEmptiedBalancesInLedger()
+            throws FundraisingEventException, CollectionBoxException, ArgumentsException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox box = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(box);
+        box.putMoney(CORRECT_CURRENCY, CORRECT_AMOUNT);
+        when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
+
+        fundraisingEventService.unregisterCollectionBoxFromFundraisingEvent(event.getUuid(), box.getUuid());
 
-        assertNull(event.getCollectionBox());
+        List<LedgerEntry> emptied = List.of(new LedgerEntry(LedgerEntry.Type.EMPTY, box.getUuid(), null,
+                Currencies.PLN, -10_000L, null, null));
+        verify(eventRepository).flush();
+        verify(ledgerRepository).append(emptied);
+        verify(boxTotals).recorded(emptied);
     }
 
     @Test
@@ -177,50 +284,74 @@ public class FundraisingEventServiceTests {
         when(eventRepository.findById(event.getUuid())).thenReturn(Optional.empty());
 
         assertThrows(FundraisingEventDoesntExistException.class, () -> {
-            fundraisingEventService.unregisterCollectionBoxFromFundraisingEvent(event.getUuid());
+            fundraisingEventService.unregisterCollectionBoxFromFundraisingEvent(event.getUuid(), UUID.randomUUID());
         });
     }
 
     @Test
-    public void getCollectionBoxByFundraisingEventId_ShouldReturnCollectionBox()
+    public void unregisterCollectionBoxesFromFundraisingEvent_ShouldUnassignEveryBox()
             throws FundraisingEventException, CollectionBoxException {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
-        CollectionBox box = CollectionBoxFactory.createCollectionBox();
-        event.assignCollectionBox(box);
+        CollectionBox box1 = CollectionBoxFactory.createCollectionBox();
+        CollectionBox box2 = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(box1);
+        event.assignCollectionBox(box2);
+        when(eventRepository.findCollectionBoxIdsByEventId(event.getUuid()))
+                .thenReturn(List.of(box1.getUuid(), box2.getUuid()));
         when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
 
-        CollectionBox result = fundraisingEventService.getCollectionBoxByFundraisingEventId(event.getUuid());
+        fundraisingEventService.unregisterCollectionBoxesFromFundraisingEvent(event.getUuid());
 
-        assertNotNull(result);
-        assertEquals(box, result);
+        assertTrue(event.getCollectionBoxes().isEmpty());
+        assertFalse(box1.isAssignedToFundraisingEvent());
+        assertFalse(box2.isAssignedToFundraisingEvent());
+        verify(concurrencyControl).execute(eq(List.of(event.getUuid(), box1.getUuid(), box2.getUuid())), any());
+    }
+
+    @Test
+    public void getCollectionBoxesByFundraisingEventId_ShouldReturnEveryBox()
+            throws FundraisingEventException, CollectionBoxException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox box1 = CollectionBoxFactory.createCollectionBox();
+        CollectionBox box2 = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(box1);
+        event.assignCollectionBox(box2);
+        when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
+
+        List<CollectionBox> result = fundraisingEventService.getCollectionBoxesByFundraisingEventId(event.getUuid());
+
+        assertEquals(List.of(box1, box2), result);
     }
 
     @Test
-    public void getCollectionBoxByFundraisingEventId_ShouldThrowException_WhenEventDoesNotExist() {
+    public void getCollectionBoxesByFundraisingEventId_ShouldThrowException_WhenEventDoesNotExist() {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
         when(eventRepository.findById(event.getUuid())).thenReturn(Optional.empty());
 
         assertThrows(FundraisingEventDoesntExistException.class, () -> {
-            fundraisingEventService.getCollectionBoxByFundraisingEventId(event.getUuid());
+            fundraisingEventService.getCollectionBoxesByFundraisingEventId(event.getUuid());
         });
     }
 
     @Test
-    public void getFundraisingEventById_ShouldReturnFundraisingEvent()
+    public void getFundraisingEventById_ShouldFoldBoxRows()
             throws FundraisingEventException {
-        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
-        when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
+        UUID eventId = UUID.randomUUID();
+        UUID boxId = UUID.randomUUID();
+        when(eventRepository.findResponseRowsByUuid(eventId)).thenReturn(List.of(
+                new FundraisingEventBoxRow(eventId, CORRECT_NAME, CORRECT_CURRENCY, 0.0, null, boxId, 250L, 0L, 0L)));
 
-        FundraisingEvent result = fundraisingEventService.getFundraisingEventById(event.getUuid());
+        FundraisingEventResponse result = fundraisingEventService.getFundraisingEventById(eventId);
 
-        assertNotNull(result);
-        assertEquals(event, result);
+        assertEquals(eventId, result.uuid());
+        assertEquals(boxId, result.collectionBoxes().get(0).uuid());
+        assertEquals(Map.of("PLN", 2.5), result.boxBalances());
     }
 
     @Test
     public void getFundraisingEventById_ShouldThrowException_WhenEventDoesNotExist() {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
-        when(eventRepository.findById(event.getUuid())).thenReturn(Optional.empty());
+        when(eventRepository.findResponseRowsByUuid(event.getUuid())).thenReturn(List.of());
 
         assertThrows(FundraisingEventDoesntExistException.class, () -> {
             fundraisingEventService.getFundraisingEventById(event.getUuid());
@@ -228,17 +359,55 @@ public class FundraisingEventServiceTests {
     }
 
     @Test
-    public void transferMoney_ShouldTransfer() throws CollectionBoxException, FundraisingEventException, ArgumentsException {
+    public void transferMoney_ShouldSweepEveryBoxWithSetBasedTransfer()
+            throws CollectionBoxException, FundraisingEventException, ArgumentsException {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
-        CollectionBox box = CollectionBoxFactory.createCollectionBox();
-        event.assignCollectionBox(box);
-        box.putMoney(CORRECT_CURRENCY, CORRECT_AMOUNT);
+        UUID box1 = UUID.randomUUID();
+        UUID box2 = UUID.randomUUID();
+        long[] swept = {10_000L, 250L, 0L};
+        List<FinancialReportEntry> entries = List.of(new FinancialReportEntry(event.getUuid(), 1L, CORRECT_NAME,
+                CORRECT_AMOUNT, CORRECT_CURRENCY));
+        when(eventRepository.findCollectionBoxIdsByEventId(event.getUuid())).thenReturn(List.of(box1, box2));
         when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
-        when(boxRepository.findById(box.getUuid())).thenReturn(Optional.of(box));
+        when(eventRepository.transferChunk(eq(List.of(event.getUuid())), any(ExchangeRates.class)))
+                .thenReturn(new ChunkResult(List.of(event.getUuid()), 0, List.of(), swept));
+        when(eventRepository.findReportEntriesByUuidIn(List.of(event.getUuid()))).thenReturn(entries);
+
+        fundraisingEventService.transferMoney(event.getUuid());
+
+        verify(concurrencyControl).execute(eq(List.of(event.getUuid(), box1, box2)), any());
+        verify(eventRepository).transferChunk(List.of(event.getUuid()), CurrencyConverter.getExchangeRates());
+        verify(reportCache).entriesChanged(entries);
+        verify(boxTotals).swept(swept);
+    }
+
+    @Test
+    public void transferMoney_ShouldDoNothing_WhenBoxesAreEmpty()
+            throws CollectionBoxException, FundraisingEventException, ArgumentsException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        when(eventRepository.findCollectionBoxIdsByEventId(event.getUuid())).thenReturn(List.of(UUID.randomUUID()));
+        when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
+        when(eventRepository.transferChunk(eq(List.of(event.getUuid())), any(ExchangeRates.class)))
+                .thenReturn(new ChunkResult(List.of(), 1, List.of()));
 
         fundraisingEventService.transferMoney(event.getUuid());
 
-        assertEquals(CORRECT_AMOUNT, event.getAccountBalance());
+        verify(reportCache, never()).entriesChanged(anyList());
+        verify(boxTotals, never()).swept(any());
+    }
+
+    @Test
+    public void transferMoney_ShouldThrowException_WhenNoBoxIsAssigned() {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        when(eventRepository.findCollectionBoxIdsByEventId(event.getUuid())).thenReturn(List.of());
+        when(eventRepository.findById(event.getUuid())).thenReturn(Optional.of(event));
+        when(eventRepository.transferChunk(eq(List.of(event.getUuid())), any(ExchangeRates.class)))
+                .thenReturn(new ChunkResult(List.of(), 0,
+                        List.of(new TransferFailure(event.getUuid(), "Collection box is not assigned to this event"))));
+
+        assertThrows(InvalidCollectionBoxException.class, () -> {
+            fundraisingEventService.transferMoney(event.getUuid());
+        });
     }
 
     @Test
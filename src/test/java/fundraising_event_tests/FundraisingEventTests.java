@@ -6,9 +6,14 @@ import app.exceptions.fundraising_event.*;
 import app.factories.CollectionBoxFactory;
 import app.factories.FundraisingEventFactory;
 import app.models.CollectionBox;
+import app.models.Currencies;
 import app.models.FundraisingEvent;
+import app.models.LedgerEntry;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class FundraisingEventTests {
@@ -23,22 +28,34 @@ public class FundraisingEventTests {
         CollectionBox collectionBox = CollectionBoxFactory.createCollectionBox();
         event.assignCollectionBox(collectionBox);
 
-        assertEquals(collectionBox, event.getCollectionBox());
+        assertEquals(List.of(collectionBox), event.getCollectionBoxes());
         assertEquals(event, collectionBox.getFundraisingEvent());
     }
 
     @Test
-    public void assignCollectionBox_ShouldThrowException_WhenEventAlreadyHasCollectionBox()
+    public void assignCollectionBox_ShouldAssignManyBoxesToOneEvent()
             throws CollectionBoxException, FundraisingEventException   {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
         CollectionBox collectionBox1 = CollectionBoxFactory.createCollectionBox();
         CollectionBox collectionBox2 = CollectionBoxFactory.createCollectionBox();
 
         event.assignCollectionBox(collectionBox1);
+        event.assignCollectionBox(collectionBox2);
+
+        assertEquals(List.of(collectionBox1, collectionBox2), event.getCollectionBoxes());
+    }
+
+    @Test
+    public void assignCollectionBox_ShouldThrowException_WhenBoxIsAlreadyAssignedToThisEvent()
+            throws CollectionBoxException, FundraisingEventException   {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox collectionBox = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(collectionBox);
 
         assertThrows(CollectionBoxAlreadyAssignedException.class, () -> {
-            event.assignCollectionBox(collectionBox2);
+            event.assignCollectionBox(collectionBox);
         });
+        assertEquals(1, event.getCollectionBoxes().size());
     }
 
     @Test
@@ -68,54 +85,67 @@ public class FundraisingEventTests {
             throws CollectionBoxException, FundraisingEventException  {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
         CollectionBox collectionBox = CollectionBoxFactory.createCollectionBox();
+        CollectionBox otherBox = CollectionBoxFactory.createCollectionBox();
         event.assignCollectionBox(collectionBox);
-        event.unregisterCollectionBox();
+        event.assignCollectionBox(otherBox);
+        event.unregisterCollectionBox(collectionBox.getUuid());
 
-        assertNull(event.getCollectionBox());
+        assertEquals(List.of(otherBox), event.getCollectionBoxes());
         assertNull(collectionBox.getFundraisingEvent());
     }
 
     @Test
-    public void unregisterCollectionBox_ShouldThrowException_WhenNoCollectionBoxAssigned() {
+    public void unregisterCollectionBox_ShouldReturnEmptiedBalances()
+            throws CollectionBoxException, FundraisingEventException, ArgumentsException {
         FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox collectionBox = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(collectionBox);
+        collectionBox.putMoney("GBP", 5.0);
 
-        assertThrows(InvalidCollectionBoxException.class, () -> {
-            event.unregisterCollectionBox();
-        });
+        List<LedgerEntry> entries = event.unregisterCollectionBox(collectionBox.getUuid());
+
+        assertEquals(List.of(new LedgerEntry(LedgerEntry.Type.EMPTY, collectionBox.getUuid(), null,
+                Currencies.GBP, -500L, null, null)), entries);
+        assertTrue(collectionBox.isEmpty());
     }
 
     @Test
-    public void transferMoney_ShouldTransferMoney()
-            throws FundraisingEventException, CollectionBoxException, ArgumentsException {
-        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent("Test Event", "PLN");
-        CollectionBox collectionBox = CollectionBoxFactory.createCollectionBox();
-        event.assignCollectionBox(collectionBox);
-        collectionBox.putMoney("EUR", 100.0);
-        event.transferMoney();
+    public void unregisterCollectionBox_ShouldThrowException_WhenNoCollectionBoxAssigned() {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
 
-        assertEquals(450.0, event.getAccountBalance());
-        assertEquals(0.0, collectionBox.getMoneyByCurrency("EUR"));
+        assertThrows(InvalidCollectionBoxException.class, () -> {
+            event.unregisterCollectionBox(UUID.randomUUID());
+        });
     }
 
     @Test
-    public void transferMoney_ShouldThrowException_WhenNoCollectionBoxAssigned()
-    {
-        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent("Test Event", "PLN");
+    public void unregisterCollectionBox_ShouldThrowException_WhenBoxBelongsToAnotherEvent()
+            throws CollectionBoxException, FundraisingEventException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        FundraisingEvent other = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox collectionBox = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(CollectionBoxFactory.createCollectionBox());
+        other.assignCollectionBox(collectionBox);
 
         assertThrows(InvalidCollectionBoxException.class, () -> {
-            event.transferMoney();
+            event.unregisterCollectionBox(collectionBox.getUuid());
         });
+        assertEquals(other, collectionBox.getFundraisingEvent());
     }
 
     @Test
-    public void transferMoney_ShouldNotTransferMoney_WhenCollectionBoxIsEmpty()
-            throws FundraisingEventException, CollectionBoxException, ArgumentsException {
-        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent("Test Event", "PLN");
-        CollectionBox collectionBox = CollectionBoxFactory.createCollectionBox();
-        event.assignCollectionBox(collectionBox);
-        event.transferMoney();
+    public void unregisterCollectionBoxes_ShouldUnassignEveryBox()
+            throws CollectionBoxException, FundraisingEventException {
+        FundraisingEvent event = FundraisingEventFactory.createFundraisingEvent(CORRECT_NAME, CORRECT_CURRENCY);
+        CollectionBox collectionBox1 = CollectionBoxFactory.createCollectionBox();
+        CollectionBox collectionBox2 = CollectionBoxFactory.createCollectionBox();
+        event.assignCollectionBox(collectionBox1);
+        event.assignCollectionBox(collectionBox2);
+
+        event.unregisterCollectionBoxes();
 
-        // Assert that the account balance is still 0.0
-        assertEquals(0.0, event.getAccountBalance());
+        assertTrue(event.getCollectionBoxes().isEmpty());
+        assertFalse(collectionBox1.isAssignedToFundraisingEvent());
+        assertFalse(collectionBox2.isAssignedToFundraisingEvent());
     }
 }
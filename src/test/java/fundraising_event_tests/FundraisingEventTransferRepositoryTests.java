@@ -0,0 +1,181 @@
+package fundraising_event_tests;
+
+import app.models.Currencies;
+import app.models.ExchangeRates;
+import app.repositories.EntityCache;
+import app.repositories.FundraisingEventTransferRepository;
+import app.repositories.FundraisingEventTransferRepository.ChunkResult;
+import app.repositories.FundraisingEventTransferRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class FundraisingEventTransferRepositoryTests {
+
+    private final ExchangeRates rates = ExchangeRates.defaults();
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private FundraisingEventTransferRepository repo;
+
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScripts("db/schema.sql", "db/ledger.sql")
+                .build();
+        jdbc = new JdbcTemplate(database);
+        repo = new FundraisingEventTransferRepositoryImpl(jdbc, mock(EntityCache.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    private UUID insertEvent(String currency) {
+        UUID eventId = UUID.randomUUID();
+        jdbc.update("INSERT INTO fundraising_events (uuid, version, name, currency, account_balance) VALUES (?, 0, 'Test Event', ?, 0)",
+                eventId, currency);
+        return eventId;
+    }
+
+    private UUID insertBox(UUID eventId, long pln, long eur, long gbp) {
+        UUID boxId = UUID.randomUUID();
+        jdbc.update("INSERT INTO collection_boxes (uuid, version, fundraising_event_id, balance_pln, balance_eur, balance_gbp)"
+                + " VALUES (?, 0, ?, ?, ?, ?)", boxId, eventId, pln, eur, gbp);
+        return boxId;
+    }
+
+    private double accountBalance(UUID eventId) {
+        return jdbc.queryForObject("SELECT account_balance FROM fundraising_events WHERE uuid = ?", Double.class, eventId);
+    }
+
+    private long boxBalance(UUID boxId, Currencies currency) {
+        return jdbc.queryForObject("SELECT balance_" + currency.name().toLowerCase() + " FROM collection_boxes WHERE uuid = ?",
+                Long.class, boxId);
+    }
+
+    private List<Map<String, Object>> ledgerEntries() {
+        return jdbc.queryForList("SELECT box_id, currency, minor_units, event_amount, rates_version"
+                + " FROM ledger_entries ORDER BY sequence");
+    }
+
+    @Test
+    public void transferChunk_ShouldTransferMoney() {
+        UUID eventId = insertEvent("PLN");
+        UUID boxId = insertBox(eventId, 0, 10_000, 0);
+
+        ChunkResult result = repo.transferChunk(List.of(eventId), rates);
+
+        assertEquals(List.of(eventId), result.transferred());
+        assertEquals(450.0, accountBalance(eventId));
+        assertEquals(0L, boxBalance(boxId, Currencies.EUR));
+        assertArrayEquals(new long[]{0, 10_000, 0}, result.sweptMinorUnits());
+    }
+
+    @Test
+    public void transferChunk_ShouldRecordExchangeRatesVersion() {
+        UUID eventId = insertEvent("PLN");
+        insertBox(eventId, 0, 10_000, 0);
+
+        repo.transferChunk(List.of(eventId), rates);
+
+        assertEquals(rates.getVersion(), jdbc.queryForObject(
+                "SELECT last_transfer_rates_version FROM fundraising_events WHERE uuid = ?", Long.class, eventId));
+        assertEquals(rates.getVersion(), ledgerEntries().get(0).get("RATES_VERSION"));
+    }
+
+    @Test
+    public void transferChunk_ShouldAppendLedgerEntryPerCurrency() {
+        UUID eventId = insertEvent("PLN");
+        UUID boxId = insertBox(eventId, 1_000, 10_000, 0);
+
+        repo.transferChunk(List.of(eventId), rates);
+
+        List<Map<String, Object>> entries = ledgerEntries();
+        assertEquals(2, entries.size());
+        double credited = 0.0;
+        for (Map<String, Object> entry : entries) {
+            assertEquals(boxId, entry.get("BOX_ID"));
+            credited += (Double) entry.get("EVENT_AMOUNT");
+        }
+        assertEquals(-1_000L, entries.get(0).get("MINOR_UNITS"));
+        assertEquals(-10_000L, entries.get(1).get("MINOR_UNITS"));
+        assertEquals(accountBalance(eventId), credited);
+    }
+
+    @Test
+    public void transferChunk_ShouldSweepEveryBox_ConvertingEachCurrencyTotalOnce() {
+        UUID eventId = insertEvent("PLN");
+        UUID box1 = insertBox(eventId, 0, 6_000, 0);
+        UUID box2 = insertBox(eventId, 500, 4_000, 0);
+        // The database's UUID order, which differs from UUID.compareTo
+        UUID first = jdbc.queryForObject("SELECT MIN(uuid) FROM collection_boxes", UUID.class);
+
+        repo.transferChunk(List.of(eventId), rates);
+
+        assertEquals(5.0 + 450.0, accountBalance(eventId));
+        assertEquals(0L, boxBalance(box1, Currencies.EUR));
+        assertEquals(0L, boxBalance(box2, Currencies.EUR));
+        assertEquals(0L, boxBalance(box2, Currencies.PLN));
+        // PLN from box 2, then EUR from both boxes; the EUR total is credited on the first box's entry
+        List<Map<String, Object>> entries = ledgerEntries();
+        assertEquals(3, entries.size());
+        assertEquals(5.0, entries.get(0).get("EVENT_AMOUNT"));
+        assertEquals(first, entries.get(1).get("BOX_ID"));
+        assertEquals(450.0, entries.get(1).get("EVENT_AMOUNT"));
+        assertNull(entries.get(2).get("EVENT_AMOUNT"));
+    }
+
+    @Test
+    public void transferChunk_ShouldReportFailure_WhenNoCollectionBoxAssigned() {
+        UUID eventId = insertEvent("PLN");
+
+        ChunkResult result = repo.transferChunk(List.of(eventId), rates);
+
+        assertTrue(result.transferred().isEmpty());
+        assertEquals(eventId, result.failures().get(0).eventId());
+    }
+
+    @Test
+    public void transferChunk_ShouldSkipEvent_WhenCollectionBoxIsEmpty() {
+        UUID eventId = insertEvent("PLN");
+        insertBox(eventId, 0, 0, 0);
+
+        ChunkResult result = repo.transferChunk(List.of(eventId), rates);
+
+        assertEquals(1, result.skipped());
+        assertEquals(0.0, accountBalance(eventId));
+        assertTrue(ledgerEntries().isEmpty());
+    }
+
+    @Test
+    public void transferChunk_ShouldReportFailure_AndKeepBalances_WhenCurrencyTotalOverflows() {
+        UUID eventId = insertEvent("PLN");
+        UUID box1 = insertBox(eventId, Long.MAX_VALUE, 0, 0);
+        UUID box2 = insertBox(eventId, 1, 0, 0);
+        UUID otherEvent = insertEvent("PLN");
+        insertBox(otherEvent, 1_000, 0, 0);
+
+        ChunkResult result = repo.transferChunk(List.of(eventId, otherEvent), rates);
+
+        assertEquals(List.of(otherEvent), result.transferred());
+        assertEquals(eventId, result.failures().get(0).eventId());
+        assertEquals(Long.MAX_VALUE, boxBalance(box1, Currencies.PLN));
+        assertEquals(1L, boxBalance(box2, Currencies.PLN));
+        assertEquals(0.0, accountBalance(eventId));
+        assertArrayEquals(new long[]{1_000, 0, 0}, result.sweptMinorUnits());
+    }
+}